@@ -0,0 +1,156 @@
+package com.computermind.stateeither;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Double.longBitsToDouble;
+
+/**
+ * Exponentially decayed statistics (success rate and mean cost) of the alternatives of one
+ * {@link SE#adaptiveAny(AnyStats, java.util.List)}, used to try first the alternatives with the
+ * lowest expected cost until the first right value. It is lock-free and meant to be shared
+ * by all the threads running the same alternatives.
+ */
+public final class AnyStats {
+    private static final int SUCCESS = 0;
+    private static final int COST = 1;
+    // a never succeeding alternative still has a finite expected cost
+    private static final double MIN_SUCCESS = 1e-3;
+
+    private final int size;
+    private final double decay;
+    private final double exploration;
+    private final LongSupplier clock;
+    // two slots by alternative, the success rate and the mean cost (NaN while unknown)
+    private final AtomicLongArray stats;
+
+    /**
+     * Construct new one statistics with 5% decay and 5% exploration
+     *
+     * @param alternatives the number of alternatives
+     */
+    public AnyStats(int alternatives) {
+        this(alternatives, 0.05, 0.05);
+    }
+
+    /**
+     * Construct new one statistics
+     *
+     * @param alternatives the number of alternatives
+     * @param decay        the weight of every new sample (0, 1]
+     * @param exploration  the probability of trying first one random alternative [0, 1]
+     */
+    public AnyStats(int alternatives, double decay, double exploration) {
+        this(alternatives, decay, exploration, System::nanoTime);
+    }
+
+    AnyStats(int alternatives, double decay, double exploration, LongSupplier clock) {
+        if (alternatives < 0)
+            throw new IllegalArgumentException("alternatives must be positive");
+        if (!(decay > 0 && decay <= 1))
+            throw new IllegalArgumentException("decay must be in (0, 1]");
+        if (!(exploration >= 0 && exploration <= 1))
+            throw new IllegalArgumentException("exploration must be in [0, 1]");
+        this.size = alternatives;
+        this.decay = decay;
+        this.exploration = exploration;
+        this.clock = clock;
+        this.stats = new AtomicLongArray(2 * alternatives);
+        for (int i = 0; i < alternatives; i++) {
+            stats.set(2 * i + SUCCESS, doubleToRawLongBits(0.5));
+            stats.set(2 * i + COST, doubleToRawLongBits(Double.NaN));
+        }
+    }
+
+    /**
+     * Number of alternatives
+     *
+     * @return the number of alternatives
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Decayed success rate of one alternative
+     *
+     * @param alternative the alternative index
+     * @return the success rate
+     */
+    public double successRate(int alternative) {
+        return longBitsToDouble(stats.get(2 * alternative + SUCCESS));
+    }
+
+    /**
+     * Decayed mean cost of one alternative
+     *
+     * @param alternative the alternative index
+     * @return the mean cost in nanoseconds (NaN if never tried)
+     */
+    public double meanCost(int alternative) {
+        return longBitsToDouble(stats.get(2 * alternative + COST));
+    }
+
+    // the clock measuring the tries
+    long nanoTime() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * Record one try
+     *
+     * @param alternative the alternative index
+     * @param success     the alternative returned a right value
+     * @param nanos       the alternative cost
+     */
+    public void record(int alternative, boolean success, long nanos) {
+        update(2 * alternative + SUCCESS, success ? 1 : 0);
+        update(2 * alternative + COST, nanos);
+    }
+
+    private void update(int slot, double sample) {
+        while (true) {
+            final long current = stats.get(slot);
+            final double x = longBitsToDouble(current);
+            final double y = Double.isNaN(x) ? sample : x + decay * (sample - x);
+            if (stats.compareAndSet(slot, current, doubleToRawLongBits(y)))
+                return;
+        }
+    }
+
+    /**
+     * The order to try the alternatives, ascending by expected cost (mean cost / success rate).
+     * Never tried alternatives go first, ties keep the given order.
+     *
+     * @return the alternative indexes
+     */
+    public int[] order() {
+        final int[] order = new int[size];
+        final double[] keys = new double[size];
+        for (int i = 0; i < size; i++) {
+            final double cost = meanCost(i);
+            final double key = Double.isNaN(cost) ? 0 : cost / Math.max(MIN_SUCCESS, successRate(i));
+            // insertion sort, there are a few alternatives
+            int j = i;
+            for (; j > 0 && keys[j - 1] > key; j--) {
+                keys[j] = keys[j - 1];
+                order[j] = order[j - 1];
+            }
+            keys[j] = key;
+            order[j] = i;
+        }
+        if (size > 1 && exploration > 0) {
+            final ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            if (rnd.nextDouble() < exploration) {
+                // move one random alternative to the front
+                final int k = rnd.nextInt(size);
+                final int x = order[k];
+                System.arraycopy(order, 0, order, 1, k);
+                order[0] = x;
+            }
+        }
+        return order;
+    }
+}
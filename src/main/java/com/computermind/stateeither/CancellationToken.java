@@ -0,0 +1,82 @@
+package com.computermind.stateeither;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cooperative cancellation flag, it can be cancelled from any thread and the combinators
+ * checking it (e.g. {@link SE#seq(CancellationToken, Object, java.util.stream.Stream)}) stop
+ * between steps. Checking it costs one volatile read.
+ * <p>
+ * Cancelling one token cancels all its children (and their children). One child is kept by its
+ * parent until it is cancelled or closed, so close the children of long lived tokens (e.g. one
+ * child per request of a server wide token) when they are not needed anymore.
+ */
+public final class CancellationToken implements AutoCloseable {
+    private volatile boolean cancelled;
+    private final CancellationToken parent;
+    private final Set<CancellationToken> children = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Construct a new one root token
+     */
+    public CancellationToken() {
+        this(null);
+    }
+
+    private CancellationToken(CancellationToken parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * The token has been cancelled
+     *
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Cancel this token and all its children
+     */
+    public void cancel() {
+        if (cancelled)
+            return;
+        cancelled = true;
+        for (CancellationToken child : children) {
+            children.remove(child);
+            child.cancel();
+        }
+        close();
+    }
+
+    /**
+     * Construct a new one token cancelled when this token is cancelled (but not the opposite)
+     *
+     * @return the child token
+     */
+    public CancellationToken child() {
+        final CancellationToken child = new CancellationToken(this);
+        children.add(child);
+        // the parent may have been cancelled (and its children drained) before adding the child
+        if (cancelled)
+            child.cancel();
+        return child;
+    }
+
+    /**
+     * Detach this token from its parent (it will not be cancelled by the parent anymore), it
+     * does not cancel this token nor its children
+     */
+    @Override
+    public void close() {
+        if (parent != null)
+            parent.children.remove(this);
+    }
+
+    // number of attached children
+    int children() {
+        return children.size();
+    }
+}
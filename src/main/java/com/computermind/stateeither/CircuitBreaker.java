@@ -0,0 +1,341 @@
+package com.computermind.stateeither;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static com.computermind.stateeither.Left.failure;
+
+/**
+ * Circuit breaker for steps ({@code then}, {@code seq}, {@code any}...). A step returning a left
+ * value or throwing is a failure. When the failure rate over the last calls reaches the policy
+ * threshold the breaker opens and the protected steps return the policy left value without
+ * running (so {@code any} goes straight to the next alternative). Once the open time elapses, a
+ * few probe calls run: the breaker closes if they succeed or opens again if they fail.
+ * <p>
+ * It is lock-free, one breaker is meant to be shared by all the pipelines calling the same
+ * dependency.
+ *
+ * @param <L> the left type
+ */
+public final class CircuitBreaker<L> {
+
+    /**
+     * Breaker states
+     */
+    public enum State {
+        /**
+         * the steps run
+         */
+        CLOSED,
+        /**
+         * the steps do not run
+         */
+        OPEN,
+        /**
+         * a few probe steps run
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Breaker configuration (immutable)
+     *
+     * @param <L> the left type
+     */
+    public static final class Policy<L> {
+        private final L open;
+        private final int window;
+        private final double failureRate;
+        private final int minimumCalls;
+        private final long openNanos;
+        private final int probes;
+        private final BiConsumer<State, State> onTransition;
+
+        private Policy(L open, int window, double failureRate, int minimumCalls, long openNanos, int probes,
+                       BiConsumer<State, State> onTransition) {
+            if (window < 1 || minimumCalls < 1 || probes < 1)
+                throw new IllegalArgumentException("window, minimum calls and probes must be positive");
+            if (minimumCalls > window)
+                throw new IllegalArgumentException("minimum calls " + minimumCalls + " greater than the window " + window);
+            if (!(failureRate > 0 && failureRate <= 1))
+                throw new IllegalArgumentException("failure rate must be in (0, 1]");
+            this.open = open;
+            this.window = window;
+            this.failureRate = failureRate;
+            this.minimumCalls = minimumCalls;
+            this.openNanos = openNanos;
+            this.probes = probes;
+            this.onTransition = onTransition;
+        }
+
+        /**
+         * Default policy: window of 100 calls, opens at 50% failures (after 20 calls) for one
+         * second and then allows one probe
+         *
+         * @param open the left value returned while open
+         * @param <L>  the left type
+         * @return the policy
+         */
+        public static <L> Policy<L> policy(L open) {
+            return new Policy<>(open, 100, 0.5, 20, TimeUnit.SECONDS.toNanos(1), 1, (from, to) -> {
+            });
+        }
+
+        /**
+         * Number of recent calls used to compute the failure rate
+         *
+         * @param window the number of calls
+         * @return a new policy
+         */
+        public Policy<L> window(int window) {
+            return new Policy<>(open, window, failureRate, Math.min(minimumCalls, window), openNanos, probes, onTransition);
+        }
+
+        /**
+         * Failure rate opening the breaker
+         *
+         * @param failureRate the rate in (0, 1]
+         * @param minimumCalls the minimum number of calls to compute the rate (at most the window)
+         * @return a new policy
+         */
+        public Policy<L> failureRate(double failureRate, int minimumCalls) {
+            return new Policy<>(open, window, failureRate, minimumCalls, openNanos, probes, onTransition);
+        }
+
+        /**
+         * Time open before probing
+         *
+         * @param time the time
+         * @param unit the time unit
+         * @return a new policy
+         */
+        public Policy<L> openFor(long time, TimeUnit unit) {
+            return new Policy<>(open, window, failureRate, minimumCalls, unit.toNanos(time), probes, onTransition);
+        }
+
+        /**
+         * Number of concurrent probes while half open
+         *
+         * @param probes the number of probes
+         * @return a new policy
+         */
+        public Policy<L> probes(int probes) {
+            return new Policy<>(open, window, failureRate, minimumCalls, openNanos, probes, onTransition);
+        }
+
+        /**
+         * Action to do on every state transition
+         *
+         * @param onTransition the action receiving the former and the new states
+         * @return a new policy
+         */
+        public Policy<L> onTransition(BiConsumer<State, State> onTransition) {
+            return new Policy<>(open, window, failureRate, minimumCalls, openNanos, probes, onTransition);
+        }
+    }
+
+    private static final int EMPTY = 0;
+    private static final int SUCCESS = 1;
+    private static final int FAILURE = 2;
+
+    private static final int REJECTED = 0;
+    private static final int CALL = 1;
+    private static final int PROBE = 2;
+
+    private final Policy<L> policy;
+    private final LongSupplier clock;
+    private final E<L, ?> open;
+    private final AtomicReference<Status> status = new AtomicReference<>(new Status(State.CLOSED, 0));
+    private volatile Window window;
+    private final AtomicInteger probes = new AtomicInteger();
+
+    // the state and when it was opened, transitions replace the whole status
+    private static final class Status {
+        final State state;
+        final long openedAt;
+
+        Status(State state, long openedAt) {
+            this.state = state;
+            this.openedAt = openedAt;
+        }
+    }
+
+    // ring buffer of the last outcomes and its counters, replaced (not cleared) on closing
+    private static final class Window {
+        final AtomicIntegerArray outcomes;
+        final AtomicLong cursor = new AtomicLong();
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+
+        Window(int size) {
+            outcomes = new AtomicIntegerArray(size);
+        }
+    }
+
+    /**
+     * Construct a new one closed breaker
+     *
+     * @param policy the breaker configuration
+     */
+    public CircuitBreaker(Policy<L> policy) {
+        this(policy, System::nanoTime);
+    }
+
+    CircuitBreaker(Policy<L> policy, LongSupplier clock) {
+        this.policy = policy;
+        this.clock = clock;
+        this.open = failure(policy.open);
+        this.window = new Window(policy.window);
+    }
+
+    /**
+     * Protect one step with a new breaker
+     *
+     * @param step   the step
+     * @param policy the breaker configuration
+     * @param <S>    the state type
+     * @param <R>    the input right type
+     * @param <L>    the left type
+     * @param <RR>   the resulting right type
+     * @return the protected step
+     */
+    public static <S, R, L, RR> BiFunction<S, R, E<L, RR>> circuitBreaker(BiFunction<S, R, E<L, RR>> step, Policy<L> policy) {
+        return new CircuitBreaker<>(policy).protect(step);
+    }
+
+    /**
+     * Protect one step with a new breaker
+     *
+     * @param step   the step
+     * @param policy the breaker configuration
+     * @param <S>    the state type
+     * @param <L>    the left type
+     * @param <RR>   the resulting right type
+     * @return the protected step
+     */
+    public static <S, L, RR> Function<S, E<L, RR>> circuitBreaker(Function<S, E<L, RR>> step, Policy<L> policy) {
+        return new CircuitBreaker<>(policy).protect(step);
+    }
+
+    /**
+     * Protect one step with this breaker
+     *
+     * @param step the step
+     * @param <S>  the state type
+     * @param <R>  the input right type
+     * @param <RR> the resulting right type
+     * @return the protected step
+     */
+    public <S, R, RR> BiFunction<S, R, E<L, RR>> protect(BiFunction<S, R, E<L, RR>> step) {
+        return (s, r) -> {
+            final int permit = permit();
+            if (permit == REJECTED)
+                return (E<L, RR>) open;
+            final E<L, RR> x;
+            try {
+                x = step.apply(s, r);
+            } catch (RuntimeException | Error e) {
+                done(permit, false);
+                throw e;
+            }
+            done(permit, x.isRight());
+            return x;
+        };
+    }
+
+    /**
+     * Protect one step with this breaker
+     *
+     * @param step the step
+     * @param <S>  the state type
+     * @param <RR> the resulting right type
+     * @return the protected step
+     */
+    public <S, RR> Function<S, E<L, RR>> protect(Function<S, E<L, RR>> step) {
+        final BiFunction<S, Void, E<L, RR>> k = protect((s, ignore) -> step.apply(s));
+        return s -> k.apply(s, null);
+    }
+
+    /**
+     * The current state
+     *
+     * @return the state
+     */
+    public State state() {
+        return status.get().state;
+    }
+
+    /**
+     * Failure rate over the recent calls while closed
+     *
+     * @return the rate (zero if there are no calls)
+     */
+    public double failureRate() {
+        final Window w = window;
+        final int n = w.calls.get();
+        return n == 0 ? 0 : w.failures.get() / (double) n;
+    }
+
+    private int permit() {
+        while (true) {
+            final Status x = status.get();
+            switch (x.state) {
+                case CLOSED:
+                    return CALL;
+                case OPEN:
+                    if (clock.getAsLong() - x.openedAt < policy.openNanos)
+                        return REJECTED;
+                    transition(x, new Status(State.HALF_OPEN, x.openedAt));
+                    break;
+                default:
+                    if (probes.incrementAndGet() <= policy.probes)
+                        return PROBE;
+                    probes.decrementAndGet();
+                    return REJECTED;
+            }
+        }
+    }
+
+    private void done(int permit, boolean success) {
+        if (permit == PROBE) {
+            probes.decrementAndGet();
+            final Status x = status.get();
+            if (x.state != State.HALF_OPEN)
+                return;
+            if (success) {
+                // the new window is ready before any call sees the breaker closed
+                window = new Window(policy.window);
+                transition(x, new Status(State.CLOSED, 0));
+            } else
+                transition(x, new Status(State.OPEN, clock.getAsLong()));
+            return;
+        }
+        final Window w = window;
+        final int old = w.outcomes.getAndSet((int) (w.cursor.getAndIncrement() % policy.window), success ? SUCCESS : FAILURE);
+        if (old == EMPTY)
+            w.calls.incrementAndGet();
+        else if (old == FAILURE)
+            w.failures.decrementAndGet();
+        final int f = success ? w.failures.get() : w.failures.incrementAndGet();
+        final int n = w.calls.get();
+        if (!success && n >= policy.minimumCalls && f >= policy.failureRate * n) {
+            final Status x = status.get();
+            if (x.state == State.CLOSED)
+                transition(x, new Status(State.OPEN, clock.getAsLong()));
+        }
+    }
+
+    private boolean transition(Status from, Status to) {
+        if (!status.compareAndSet(from, to))
+            return false;
+        policy.onTransition.accept(from.state, to.state);
+        return true;
+    }
+}
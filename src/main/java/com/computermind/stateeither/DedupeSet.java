@@ -0,0 +1,68 @@
+package com.computermind.stateeither;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent set to be used as (or inside) a shared state for deduplication. Designed
+ * to be used as a guard {@code .guard(x -> dedupe.firstSeen(x), duplicated)}.
+ * <p>
+ * Checking an element already seen never locks, the first registration of one element locks
+ * (briefly) only its hash bin.
+ *
+ * @param <T> the element type
+ */
+public final class DedupeSet<T> {
+    private final Set<T> seen = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Register one element
+     *
+     * @param x the element
+     * @return true only for the first caller registering the element
+     */
+    public boolean firstSeen(T x) {
+        // contains first, a lookup never locks, an insertion does
+        return !seen.contains(x) && seen.add(x);
+    }
+
+    /**
+     * The element has been already registered
+     *
+     * @param x the element
+     * @return true if registered
+     */
+    public boolean seen(T x) {
+        return seen.contains(x);
+    }
+
+    /**
+     * Number of registered elements
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return seen.size();
+    }
+
+    /**
+     * Snapshot of all the registered elements
+     *
+     * @return a new set with the current elements
+     */
+    public Set<T> snapshot() {
+        return new HashSet<>(seen);
+    }
+
+    /**
+     * Merge another snapshot into this set
+     *
+     * @param snapshot the elements to add
+     * @return this set
+     */
+    public DedupeSet<T> merge(Set<T> snapshot) {
+        seen.addAll(snapshot);
+        return this;
+    }
+}
@@ -0,0 +1,12 @@
+package com.computermind.stateeither;
+
+/**
+ * One primitive step which may fail, see {@link SE#foldDoubleE}
+ *
+ * @param <S> the state type
+ * @param <L> the left type
+ */
+@FunctionalInterface
+public interface DoubleStep<S, L> {
+    double apply(S state, Failure<L> failure);
+}
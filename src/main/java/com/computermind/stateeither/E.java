@@ -1,6 +1,13 @@
 package com.computermind.stateeither;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.computermind.stateeither.Left.failure;
+import static com.computermind.stateeither.Right.success;
 
 /**
  * Stateless Either
@@ -9,5 +16,156 @@ import java.util.function.Function;
  * @param <R> the right type
  */
 public abstract class E<L, R> {
-    abstract <T> T either(Function<L, T> l, Function<R, T> r);
+
+    /**
+     * The instance contains some left value
+     *
+     * @return true when left, false when right
+     */
+    public abstract boolean isLeft();
+
+    /**
+     * The instance contains some right value
+     *
+     * @return true when right, false when left
+     */
+    public abstract boolean isRight();
+
+    /**
+     * Get the current left value
+     *
+     * @return the left value
+     * @throws IllegalStateException if the instance contains some right value
+     */
+    public abstract L left();
+
+    /**
+     * Get the current right value
+     *
+     * @return the right value
+     * @throws IllegalStateException if the instance contains some left value
+     */
+    public abstract R right();
+
+    /**
+     * Get a new one value from left or from right
+     *
+     * @param l   how to get the value when left
+     * @param r   how to get the value when right
+     * @param <T> the returned type
+     * @return the mapped value
+     */
+    public abstract <T> T either(Function<L, T> l, Function<R, T> r);
+
+    /**
+     * Map the right value
+     *
+     * @param f    mapping function
+     * @param <RR> the new right type
+     * @return the mapped either
+     */
+    public abstract <RR> E<L, RR> map(Function<R, RR> f);
+
+    /**
+     * Map the left value
+     *
+     * @param f    mapping function
+     * @param <LL> the new left type
+     * @return the mapped either
+     */
+    public abstract <LL> E<LL, R> mapLeft(Function<L, LL> f);
+
+    /**
+     * Chain one computation.
+     *
+     * @param k    the computation
+     * @param <RR> the new right type
+     * @return a new one either
+     */
+    public abstract <RR> E<L, RR> flatMap(Function<R, E<L, RR>> k);
+
+    /**
+     * Attach one state to this either
+     *
+     * @param s   the state
+     * @param <S> the state type
+     * @return the stateful either with the same (strict or lazy) value
+     */
+    abstract <S> SE<S, L, R> toSE(S s);
+
+    /**
+     * Get a new one value from left or from right
+     *
+     * @param whenLeft  how to get the value when left
+     * @param whenRight how to get the value when right
+     * @param <T>       the returned type
+     * @return the mapped value
+     */
+    public final <T> T fold(Function<L, T> whenLeft, Function<R, T> whenRight) {
+        return either(whenLeft, whenRight);
+    }
+
+    /**
+     * Check one assertion
+     *
+     * @param trueOrFail assertion
+     * @param error      error if fail
+     * @return the either result
+     */
+    public final E<L, R> guard_(Function<R, Boolean> trueOrFail, Function<R, L> error) {
+        if (isLeft())
+            return this;
+        final R r = right();
+        return trueOrFail.apply(r) ? this : failure(error.apply(r));
+    }
+
+    /**
+     * Check one assertion
+     *
+     * @param trueOrFail assertion
+     * @param error      error if fail
+     * @return the either result
+     */
+    public final E<L, R> guard(Function<R, Boolean> trueOrFail, L error) {
+        if (isLeft())
+            return this;
+        return trueOrFail.apply(right()) ? this : failure(error);
+    }
+
+    /**
+     * Consume strictly the input stream up to any Left value (or the whole stream if
+     * no Left value exist)
+     *
+     * @param xs  the eithers
+     * @param <L> the left type
+     * @param <R> the right type
+     * @return the first left value or all rights
+     */
+    public static <L, R> E<L, Stream<R>> sequence(Stream<E<L, R>> xs) {
+        return traverse(xs, Function.identity());
+    }
+
+    /**
+     * Map strictly the input stream up to any Left value (or the whole stream if
+     * no Left value exist)
+     *
+     * @param xs  the input values
+     * @param f   the computation for every input value
+     * @param <A> the input type
+     * @param <L> the left type
+     * @param <R> the right type
+     * @return the first left value or all rights
+     */
+    public static <A, L, R> E<L, Stream<R>> traverse(Stream<A> xs, Function<A, E<L, R>> f) {
+        final List<R> acc = new ArrayList<>();
+        final Iterator<A> i = xs.iterator();
+        while (i.hasNext()) {
+            final E<L, R> x = f.apply(i.next());
+            if (x.isLeft())
+                return failure(x.left());
+            acc.add(x.right());
+        }
+        return success(acc.stream());
+    }
+
 }
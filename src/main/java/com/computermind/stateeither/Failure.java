@@ -0,0 +1,36 @@
+package com.computermind.stateeither;
+
+/**
+ * Failure sink of one primitive fold ({@link SE#foldLongE}, {@link SE#foldDoubleE}), the steps
+ * report their left value through it instead of returning one E so the right path does not
+ * allocate. The fold creates one sink and reuses it for all its steps.
+ *
+ * @param <L> the left type
+ */
+public final class Failure<L> {
+    private boolean failed;
+    private L left;
+
+    Failure() {
+    }
+
+    /**
+     * Fail the current step, the fold stops and results in the left value
+     *
+     * @param left the left value
+     * @return zero, for the step to return it ({@code return failure.fail(x)})
+     */
+    public long fail(L left) {
+        this.failed = true;
+        this.left = left;
+        return 0;
+    }
+
+    boolean failed() {
+        return failed;
+    }
+
+    L left() {
+        return left;
+    }
+}
@@ -0,0 +1,228 @@
+package com.computermind.stateeither;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static com.computermind.stateeither.Left.failure;
+import static com.computermind.stateeither.Right.success;
+
+/**
+ * Ready-made file steps returning {@code E<IOFailure, ...>}, to be used instead of wrapping
+ * {@code Paths::get}, {@code Files::lines}... with {@link UnsafeException#unsafe}, e.g.
+ * {@code .then(FileSteps::path).then(FileSteps::read)}.
+ * <p>
+ * Large files are memory mapped (no copy to the heap), the small ones are read into one heap
+ * buffer (mappings are released only by the garbage collector, one by small file would pile up).
+ * Lines are handed out as views of the file contents (no {@code String} by line). The usual failures (missing file, directory, not
+ * readable) are classified before opening the file, without exceptions.
+ */
+public final class FileSteps {
+    // smaller files are read, not mapped
+    static final int MAP_THRESHOLD = 64 * 1024;
+
+    private FileSteps() {
+    }
+
+    /**
+     * Parse one path
+     *
+     * @param path the path
+     * @return the parsed path or {@link IOFailure.Kind#INVALID_PATH}
+     */
+    public static E<IOFailure, Path> path(String path) {
+        try {
+            return success(Paths.get(path));
+        } catch (InvalidPathException e) {
+            return failure(new IOFailure(IOFailure.Kind.INVALID_PATH, path, e.getReason()));
+        }
+    }
+
+    private static IOFailure check(Path path) {
+        if (Files.notExists(path))
+            return new IOFailure(IOFailure.Kind.NOT_FOUND, path.toString(), "no such file");
+        if (Files.isDirectory(path))
+            return new IOFailure(IOFailure.Kind.NOT_A_FILE, path.toString(), "is a directory");
+        if (!Files.isReadable(path))
+            return new IOFailure(IOFailure.Kind.ACCESS_DENIED, path.toString(), "not readable");
+        return null;
+    }
+
+    private static IOFailure tooLarge(Path path, long size) {
+        return new IOFailure(IOFailure.Kind.TOO_LARGE, path.toString(), size + " bytes");
+    }
+
+    /**
+     * Read one whole file, mapping it in memory (read only) if it is large
+     *
+     * @param path the file
+     * @return the file contents or the failure
+     */
+    public static E<IOFailure, ByteBuffer> read(Path path) {
+        final IOFailure invalid = check(path);
+        if (invalid != null)
+            return failure(invalid);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                return failure(tooLarge(path, size));
+            if (size >= MAP_THRESHOLD)
+                // the mapping is still valid once the channel is closed
+                return success(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+            final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read up to the end
+            }
+            return success((ByteBuffer) ((Buffer) buffer).flip());
+        } catch (IOException e) {
+            return failure(IOFailure.of(path.toString(), e));
+        }
+    }
+
+    /**
+     * Split one file in records, every record is handed out as one view of the file contents
+     * (without the separator). The view is reused for every record, copy it to keep it.
+     *
+     * @param path      the file
+     * @param separator the records separator
+     * @param record    the action for every record
+     * @return the number of records or the failure
+     */
+    public static E<IOFailure, Long> forEachRecord(Path path, byte separator, Consumer<ByteBuffer> record) {
+        return read(path).map(xs -> split(xs, separator, false, record));
+    }
+
+    /**
+     * Split one file in lines ({@code \n} or {@code \r\n}), every line is handed out as one view of
+     * the file contents (without the line terminator). The view is reused for every line, copy
+     * it to keep it.
+     *
+     * @param path the file
+     * @param line the action for every line
+     * @return the number of lines or the failure
+     */
+    public static E<IOFailure, Long> forEachLine(Path path, Consumer<ByteBuffer> line) {
+        return read(path).map(xs -> split(xs, (byte) '\n', true, line));
+    }
+
+    private static long split(ByteBuffer xs, byte separator, boolean lines, Consumer<ByteBuffer> record) {
+        final ByteBuffer view = xs.duplicate();
+        final int size = xs.limit();
+        long count = 0;
+        int from = 0;
+        while (from < size) {
+            int to = from;
+            while (to < size && xs.get(to) != separator)
+                to++;
+            final int end = lines && to > from && xs.get(to - 1) == '\r' ? to - 1 : to;
+            // Buffer casts keep the Java 8 binary signatures
+            ((Buffer) view).limit(end);
+            ((Buffer) view).position(from);
+            record.accept(view);
+            ((Buffer) view).limit(size);
+            count++;
+            from = to + 1;
+        }
+        return count;
+    }
+
+    /**
+     * Read many (small) files at once with asynchronous channels
+     *
+     * @param paths the files
+     * @return the contents or the failure of every file, in the same order
+     */
+    public static List<E<IOFailure, ByteBuffer>> readAll(List<Path> paths) {
+        final List<CompletableFuture<E<IOFailure, ByteBuffer>>> fs = new ArrayList<>(paths.size());
+        for (Path path : paths)
+            fs.add(readAsync(path));
+        final List<E<IOFailure, ByteBuffer>> xs = new ArrayList<>(fs.size());
+        for (CompletableFuture<E<IOFailure, ByteBuffer>> f : fs)
+            xs.add(f.join());
+        return xs;
+    }
+
+    private static CompletableFuture<E<IOFailure, ByteBuffer>> readAsync(Path path) {
+        final CompletableFuture<E<IOFailure, ByteBuffer>> f = new CompletableFuture<>();
+        final IOFailure invalid = check(path);
+        if (invalid != null) {
+            f.complete(failure(invalid));
+            return f;
+        }
+        final AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+        } catch (IOException e) {
+            f.complete(failure(IOFailure.of(path.toString(), e)));
+            return f;
+        }
+        try {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                close(channel);
+                f.complete(failure(tooLarge(path, size)));
+                return f;
+            }
+            final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            channel.read(buffer, 0, null, handler(path, channel, buffer, f));
+        } catch (IOException e) {
+            close(channel);
+            f.complete(failure(IOFailure.of(path.toString(), e)));
+        } catch (RuntimeException | Error e) {
+            close(channel);
+            throw e;
+        }
+        return f;
+    }
+
+    private static void close(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignore) {
+            // nothing to release anymore
+        }
+    }
+
+    private static CompletionHandler<Integer, Void> handler(Path path, AsynchronousFileChannel channel, ByteBuffer buffer,
+                                                            CompletableFuture<E<IOFailure, ByteBuffer>> f) {
+        return new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(Integer n, Void ignore) {
+                // an exception here would leave the future pending forever
+                try {
+                    if (n >= 0 && buffer.hasRemaining()) {
+                        channel.read(buffer, buffer.position(), null, this);
+                        return;
+                    }
+                    done(success((ByteBuffer) ((Buffer) buffer).flip()));
+                } catch (Throwable e) {
+                    failed(e, ignore);
+                }
+            }
+
+            @Override
+            public void failed(Throwable e, Void ignore) {
+                done(failure(e instanceof IOException
+                        ? IOFailure.of(path.toString(), (IOException) e)
+                        : new IOFailure(IOFailure.Kind.IO_ERROR, path.toString(), String.valueOf(e))));
+            }
+
+            private void done(E<IOFailure, ByteBuffer> x) {
+                close(channel);
+                f.complete(x);
+            }
+        };
+    }
+}
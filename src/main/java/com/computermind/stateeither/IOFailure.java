@@ -0,0 +1,100 @@
+package com.computermind.stateeither;
+
+import java.io.IOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+
+/**
+ * Left value of the {@link FileSteps}, one classified I/O failure.
+ */
+public final class IOFailure {
+
+    /**
+     * Failure classification
+     */
+    public enum Kind {
+        /**
+         * the path is not valid on this file system
+         */
+        INVALID_PATH,
+        /**
+         * the file does not exist
+         */
+        NOT_FOUND,
+        /**
+         * the path exists but it is not a regular file
+         */
+        NOT_A_FILE,
+        /**
+         * the file cannot be read
+         */
+        ACCESS_DENIED,
+        /**
+         * the file does not fit on one buffer
+         */
+        TOO_LARGE,
+        /**
+         * any other I/O error
+         */
+        IO_ERROR
+    }
+
+    private final Kind kind;
+    private final String path;
+    private final String message;
+
+    /**
+     * Construct a new one failure
+     *
+     * @param kind    the failure classification
+     * @param path    the failing path
+     * @param message the failure description
+     */
+    public IOFailure(Kind kind, String path, String message) {
+        this.kind = kind;
+        this.path = path;
+        this.message = message;
+    }
+
+    static IOFailure of(String path, IOException e) {
+        final Kind kind = e instanceof NoSuchFileException || e instanceof NotDirectoryException ? Kind.NOT_FOUND
+                : e instanceof AccessDeniedException ? Kind.ACCESS_DENIED
+                : Kind.IO_ERROR;
+        final String message = e instanceof FileSystemException ? ((FileSystemException) e).getReason() : e.getMessage();
+        return new IOFailure(kind, path, message == null ? e.getClass().getSimpleName() : message);
+    }
+
+    /**
+     * The failure classification
+     *
+     * @return the kind
+     */
+    public Kind kind() {
+        return kind;
+    }
+
+    /**
+     * The failing path
+     *
+     * @return the path
+     */
+    public String path() {
+        return path;
+    }
+
+    /**
+     * The failure description
+     *
+     * @return the message
+     */
+    public String message() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + path + ": " + message;
+    }
+}
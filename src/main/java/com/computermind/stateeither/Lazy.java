@@ -0,0 +1,32 @@
+package com.computermind.stateeither;
+
+import java.util.function.Supplier;
+
+/**
+ * Memoized supplier, the value is computed at most once (even from several threads).
+ *
+ * @param <T> the value type
+ */
+final class Lazy<T> implements Supplier<T> {
+    // null once the value has been computed, the volatile write publishes `value`
+    private volatile Supplier<T> f;
+    private T value;
+
+    Lazy(Supplier<T> f) {
+        this.f = f;
+    }
+
+    @Override
+    public T get() {
+        if (f != null) {
+            synchronized (this) {
+                final Supplier<T> g = f;
+                if (g != null) {
+                    value = g.get();
+                    f = null;
+                }
+            }
+        }
+        return value;
+    }
+}
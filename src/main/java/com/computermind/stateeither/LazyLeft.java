@@ -0,0 +1,56 @@
+package com.computermind.stateeither;
+
+import java.util.function.Function;
+
+final class LazyLeft<L, R> extends E<L, R> {
+    private final Lazy<L> x;
+
+    LazyLeft(Lazy<L> x) {
+        this.x = x;
+    }
+
+    @Override
+    public boolean isLeft() {
+        return true;
+    }
+
+    @Override
+    public boolean isRight() {
+        return false;
+    }
+
+    @Override
+    public L left() {
+        return x.get();
+    }
+
+    @Override
+    public R right() {
+        throw new IllegalStateException("cannot get the right value from a left value");
+    }
+
+    @Override
+    public <T> T either(Function<L, T> l, Function<R, T> r) {
+        return l.apply(x.get());
+    }
+
+    @Override
+    public <RR> E<L, RR> map(Function<R, RR> f) {
+        return (E<L, RR>) this;
+    }
+
+    @Override
+    public <LL> E<LL, R> mapLeft(Function<L, LL> f) {
+        return new LazyLeft<>(new Lazy<>(() -> f.apply(x.get())));
+    }
+
+    @Override
+    public <RR> E<L, RR> flatMap(Function<R, E<L, RR>> k) {
+        return (E<L, RR>) this;
+    }
+
+    @Override
+    <S> SE<S, L, R> toSE(S s) {
+        return new SELazyLeft<>(s, x);
+    }
+}
@@ -0,0 +1,56 @@
+package com.computermind.stateeither;
+
+import java.util.function.Function;
+
+final class LazyRight<L, R> extends E<L, R> {
+    private final Lazy<R> x;
+
+    LazyRight(Lazy<R> x) {
+        this.x = x;
+    }
+
+    @Override
+    public boolean isLeft() {
+        return false;
+    }
+
+    @Override
+    public boolean isRight() {
+        return true;
+    }
+
+    @Override
+    public L left() {
+        throw new IllegalStateException("cannot get the left value from a right value");
+    }
+
+    @Override
+    public R right() {
+        return x.get();
+    }
+
+    @Override
+    public <T> T either(Function<L, T> l, Function<R, T> r) {
+        return r.apply(x.get());
+    }
+
+    @Override
+    public <RR> E<L, RR> map(Function<R, RR> f) {
+        return new LazyRight<>(new Lazy<>(() -> f.apply(x.get())));
+    }
+
+    @Override
+    public <LL> E<LL, R> mapLeft(Function<L, LL> f) {
+        return (E<LL, R>) this;
+    }
+
+    @Override
+    public <RR> E<L, RR> flatMap(Function<R, E<L, RR>> k) {
+        return k.apply(x.get());
+    }
+
+    @Override
+    <S> SE<S, L, R> toSE(S s) {
+        return new SELazyRight<>(s, x);
+    }
+}
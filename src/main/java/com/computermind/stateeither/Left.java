@@ -1,6 +1,7 @@
 package com.computermind.stateeither;
 
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Stateless left value
@@ -9,7 +10,7 @@ import java.util.function.Function;
  * @param <R> the right type
  */
 public final class Left<L, R> extends E<L, R> {
-    private L x;
+    private final L x;
 
     /**
      * Construct a new one left value
@@ -32,8 +33,61 @@ public final class Left<L, R> extends E<L, R> {
         return new Left(left);
     }
 
+    /**
+     * Static constructor of a lazy left value, the supplier is evaluated at most once
+     * and only when the left value is required.
+     *
+     * @param left the left value supplier
+     * @param <L>  the left type
+     * @param <R>  the right type
+     * @return a new one lazy left value
+     */
+    public static <L, R> E<L, R> lazyFailure(Supplier<L> left) {
+        return new LazyLeft<>(new Lazy<>(left));
+    }
+
+    @Override
+    public boolean isLeft() {
+        return true;
+    }
+
     @Override
-    <T> T either(Function<L, T> l, Function<R, T> r) {
+    public boolean isRight() {
+        return false;
+    }
+
+    @Override
+    public L left() {
+        return x;
+    }
+
+    @Override
+    public R right() {
+        throw new IllegalStateException("cannot get the right value from a left value");
+    }
+
+    @Override
+    public <T> T either(Function<L, T> l, Function<R, T> r) {
         return l.apply(x);
     }
+
+    @Override
+    public <RR> E<L, RR> map(Function<R, RR> f) {
+        return (E<L, RR>) this;
+    }
+
+    @Override
+    public <LL> E<LL, R> mapLeft(Function<L, LL> f) {
+        return new Left<>(f.apply(x));
+    }
+
+    @Override
+    public <RR> E<L, RR> flatMap(Function<R, E<L, RR>> k) {
+        return (E<L, RR>) this;
+    }
+
+    @Override
+    <S> SE<S, L, R> toSE(S s) {
+        return new SELeft<>(s, x);
+    }
 }
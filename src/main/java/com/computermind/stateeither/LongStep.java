@@ -0,0 +1,12 @@
+package com.computermind.stateeither;
+
+/**
+ * One primitive step which may fail, see {@link SE#foldLongE}
+ *
+ * @param <S> the state type
+ * @param <L> the left type
+ */
+@FunctionalInterface
+public interface LongStep<S, L> {
+    long apply(S state, Failure<L> failure);
+}
@@ -0,0 +1,17 @@
+package com.computermind.stateeither;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.computermind.stateeither.Pipeline")
+@Label("SE Pipeline")
+@Description("One stateful either pipeline run")
+@Category("State Either")
+@Enabled(false)
+@StackTrace(false)
+final class PipelineEvent extends SEEvent {
+}
@@ -0,0 +1,198 @@
+package com.computermind.stateeither;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Set of {@code chain} (or {@code seq}) pipelines sharing their common prefixes.
+ * <p>
+ * The pipelines are merged into a trie by step identity (the same step instance), running one
+ * input every shared step runs once. Where the pipelines diverge, every branch but the last one
+ * runs with a copy of the state (the copy function must copy deeply enough for the steps to not
+ * interfere). Every pipeline results as {@link SE#chain} would: the first left value or all rights.
+ *
+ * @param <K> the pipeline key type
+ * @param <S> the state type
+ * @param <L> the left type
+ * @param <R> the right type
+ */
+public final class PipelineSet<K, S, L, R> {
+    private final UnaryOperator<S> copy;
+    private final Node<K, S, L, R> root = new Node<>(null);
+    private final Map<K, Boolean> keys = new HashMap<>();
+
+    /**
+     * Construct a new one empty set
+     *
+     * @param copy how to copy the state on every branch
+     */
+    public PipelineSet(UnaryOperator<S> copy) {
+        this.copy = copy;
+    }
+
+    /**
+     * Static constructor.
+     *
+     * @param copy how to copy the state on every branch
+     * @param <K>  the pipeline key type
+     * @param <S>  the state type
+     * @param <L>  the left type
+     * @param <R>  the right type
+     * @return a new one empty set
+     */
+    public static <K, S, L, R> PipelineSet<K, S, L, R> pipelines(UnaryOperator<S> copy) {
+        return new PipelineSet<>(copy);
+    }
+
+    /**
+     * Add one {@code chain} pipeline
+     *
+     * @param key   the pipeline key
+     * @param steps the pipeline steps
+     * @return this set
+     */
+    public PipelineSet<K, S, L, R> chain(K key, List<BiFunction<S, R, E<L, R>>> steps) {
+        return add(key, steps, k -> k);
+    }
+
+    /**
+     * Add one {@code chain} pipeline
+     *
+     * @param key   the pipeline key
+     * @param steps the pipeline steps
+     * @return this set
+     */
+    public PipelineSet<K, S, L, R> chain(K key, BiFunction<S, R, E<L, R>>... steps) {
+        return chain(key, Arrays.asList(steps));
+    }
+
+    /**
+     * Add one {@code seq} pipeline
+     *
+     * @param key   the pipeline key
+     * @param steps the pipeline steps
+     * @return this set
+     */
+    public PipelineSet<K, S, L, R> seq(K key, List<Function<S, E<L, R>>> steps) {
+        return add(key, steps, k -> (s, ignore) -> k.apply(s));
+    }
+
+    /**
+     * Add one {@code seq} pipeline
+     *
+     * @param key   the pipeline key
+     * @param steps the pipeline steps
+     * @return this set
+     */
+    public PipelineSet<K, S, L, R> seq(K key, Function<S, E<L, R>>... steps) {
+        return seq(key, Arrays.asList(steps));
+    }
+
+    private <T> PipelineSet<K, S, L, R> add(K key, List<T> steps, Function<T, BiFunction<S, R, E<L, R>>> adapt) {
+        if (keys.put(key, true) != null)
+            throw new IllegalArgumentException("duplicated pipeline " + key);
+        Node<K, S, L, R> n = root;
+        n.keys.add(key);
+        for (T step : steps) {
+            Node<K, S, L, R> c = n.children.get(step);
+            if (c == null) {
+                c = new Node<>(adapt.apply(step));
+                n.children.put(step, c);
+            }
+            n = c;
+            n.keys.add(key);
+        }
+        n.ends.add(key);
+        return this;
+    }
+
+    /**
+     * Number of distinct steps, every one runs at most once per input
+     *
+     * @return the number of trie nodes (the root excluded)
+     */
+    public int steps() {
+        return root.size() - 1;
+    }
+
+    /**
+     * Run all pipelines from one input
+     *
+     * @param x the input (the first right value of every pipeline)
+     * @return the result of every pipeline
+     */
+    public Map<K, SE<S, L, Stream<R>>> run(SE<S, L, R> x) {
+        final Map<K, SE<S, L, Stream<R>>> rs = new HashMap<>(keys.size() * 4 / 3 + 1);
+        if (x.isLeft()) {
+            final SE<S, L, Stream<R>> left = x.map(r -> null);
+            for (K k : root.keys)
+                rs.put(k, left);
+        } else
+            run(root, x, new Cons<>(x.right(), null, 1), rs);
+        return rs;
+    }
+
+    private void run(Node<K, S, L, R> n, SE<S, L, R> x, Cons<R> acc, Map<K, SE<S, L, Stream<R>>> rs) {
+        int pending = n.ends.size() + n.children.size();
+        for (K k : n.ends)
+            rs.put(k, SE.right(--pending == 0 ? x.state() : copy.apply(x.state()), acc.stream()));
+        for (Node<K, S, L, R> c : n.children.values()) {
+            final S s = --pending == 0 ? x.state() : copy.apply(x.state());
+            final SE<S, L, R> y = SE.<S, L, R>right(s, x.right()).then(c.step);
+            if (y.isLeft()) {
+                final SE<S, L, Stream<R>> left = y.map(r -> null);
+                for (K k : c.keys)
+                    rs.put(k, left);
+            } else
+                run(c, y, new Cons<>(y.right(), acc, acc.size + 1), rs);
+        }
+    }
+
+    private static final class Node<K, S, L, R> {
+        final BiFunction<S, R, E<L, R>> step;
+        // keyed by the step as registered (before being adapted)
+        final Map<Object, Node<K, S, L, R>> children = new IdentityHashMap<>();
+        final List<K> keys = new ArrayList<>();
+        final List<K> ends = new ArrayList<>();
+
+        Node(BiFunction<S, R, E<L, R>> step) {
+            this.step = step;
+        }
+
+        int size() {
+            int n = 1;
+            for (Node<K, S, L, R> c : children.values())
+                n += c.size();
+            return n;
+        }
+    }
+
+    // rights so far, shared by the branches
+    private static final class Cons<R> {
+        final R head;
+        final Cons<R> tail;
+        final int size;
+
+        Cons(R head, Cons<R> tail, int size) {
+            this.head = head;
+            this.tail = tail;
+            this.size = size;
+        }
+
+        Stream<R> stream() {
+            final Object[] xs = new Object[size];
+            Cons<R> c = this;
+            for (int i = size - 1; i >= 0; i--, c = c.tail)
+                xs[i] = c.head;
+            return (Stream<R>) Arrays.stream(xs);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.computermind.stateeither;
+
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Bounded pool of expensive resources (readers, channels, connections...) reused across pipeline
+ * runs, see {@link SE#using(ResourcePool, java.util.function.BiFunction)} and
+ * {@link SE#bracket(ResourcePool, java.util.function.BiFunction)}.
+ * <p>
+ * The most recently released resource is reused first. A resource whose computation throws is
+ * destroyed instead of reused.
+ *
+ * @param <A> the resource type
+ */
+public final class ResourcePool<A> implements AutoCloseable {
+    private final Callable<A> factory;
+    private final Consumer<A> destroy;
+    private final long timeoutNanos;
+    private final Semaphore permits;
+    private final Deque<A> idle = new ConcurrentLinkedDeque<>();
+    // the resources in use (by identity), only those can be given back
+    private final Set<A> leased = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    private volatile boolean closed;
+
+    /**
+     * Construct a new one empty pool
+     *
+     * @param factory how to create one resource
+     * @param destroy how to destroy one resource
+     * @param size    the maximum number of resources (idle or in use)
+     * @param timeout how long to wait for one resource
+     * @param unit    the timeout unit
+     */
+    public ResourcePool(Callable<A> factory, Consumer<A> destroy, int size, long timeout, TimeUnit unit) {
+        this.factory = factory;
+        this.destroy = destroy;
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.permits = new Semaphore(size);
+    }
+
+    /**
+     * Get one resource, reusing one idle resource if any
+     *
+     * @return the resource
+     * @throws UnsafeException if no resource is available on time or it cannot be created
+     */
+    public A acquire() {
+        if (closed)
+            throw new IllegalStateException("the pool is closed");
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS))
+                throw new UnsafeException(new TimeoutException("no resource available"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnsafeException(e);
+        }
+        final A x = idle.pollFirst();
+        if (x != null) {
+            leased.add(x);
+            return x;
+        }
+        try {
+            final A y = factory.call();
+            leased.add(y);
+            return y;
+        } catch (Exception e) {
+            permits.release();
+            throw e instanceof RuntimeException ? (RuntimeException) e : new UnsafeException(e);
+        }
+    }
+
+    private void lease(A x) {
+        if (!leased.remove(x))
+            throw new IllegalArgumentException("the resource is not in use from this pool");
+    }
+
+    /**
+     * Give back one resource to be reused
+     *
+     * @param x the resource
+     * @throws IllegalArgumentException if the resource is not in use (already given back or
+     *                                  not acquired from this pool)
+     */
+    public void release(A x) {
+        lease(x);
+        try {
+            if (closed)
+                destroy.accept(x);
+            else {
+                idle.offerFirst(x);
+                // the pool may have been closed (and drained) meanwhile
+                if (closed && idle.removeFirstOccurrence(x))
+                    destroy.accept(x);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Give back one broken resource, it is destroyed
+     *
+     * @param x the resource
+     * @throws IllegalArgumentException if the resource is not in use (already given back or
+     *                                  not acquired from this pool)
+     */
+    public void invalidate(A x) {
+        lease(x);
+        try {
+            destroy.accept(x);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Number of resources ready for reuse
+     *
+     * @return the number of resources
+     */
+    public int idle() {
+        return idle.size();
+    }
+
+    /**
+     * Destroy the idle resources, the resources in use are destroyed when released
+     */
+    @Override
+    public void close() {
+        closed = true;
+        A x;
+        while ((x = idle.pollFirst()) != null)
+            destroy.accept(x);
+    }
+}
@@ -1,6 +1,7 @@
 package com.computermind.stateeither;
 
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Stateless right value
@@ -9,7 +10,7 @@ import java.util.function.Function;
  * @param <R> the right type
  */
 public final class Right<L, R> extends E<L, R> {
-    private R x;
+    private final R x;
 
     /**
      * Construct a new one right value
@@ -32,8 +33,61 @@ public final class Right<L, R> extends E<L, R> {
         return new Right(right);
     }
 
+    /**
+     * Static constructor of a lazy right value, the supplier is evaluated at most once
+     * and only when the right value is required.
+     *
+     * @param right the right value supplier
+     * @param <L>   the left type
+     * @param <R>   the right type
+     * @return a new one lazy right value
+     */
+    public static <L, R> E<L, R> lazySuccess(Supplier<R> right) {
+        return new LazyRight<>(new Lazy<>(right));
+    }
+
+    @Override
+    public boolean isLeft() {
+        return false;
+    }
+
     @Override
-    <T> T either(Function<L, T> l, Function<R, T> r) {
+    public boolean isRight() {
+        return true;
+    }
+
+    @Override
+    public L left() {
+        throw new IllegalStateException("cannot get the left value from a right value");
+    }
+
+    @Override
+    public R right() {
+        return x;
+    }
+
+    @Override
+    public <T> T either(Function<L, T> l, Function<R, T> r) {
         return r.apply(x);
     }
+
+    @Override
+    public <RR> E<L, RR> map(Function<R, RR> f) {
+        return new Right<>(f.apply(x));
+    }
+
+    @Override
+    public <LL> E<LL, R> mapLeft(Function<L, LL> f) {
+        return (E<LL, R>) this;
+    }
+
+    @Override
+    public <RR> E<L, RR> flatMap(Function<R, E<L, RR>> k) {
+        return k.apply(x);
+    }
+
+    @Override
+    <S> SE<S, L, R> toSE(S s) {
+        return new SERight<>(s, x);
+    }
 }
@@ -8,6 +8,7 @@ import java.util.stream.Stream;
 
 import static com.computermind.stateeither.Left.failure;
 import static com.computermind.stateeither.Right.success;
+import static java.util.Arrays.asList;
 import static java.util.Arrays.stream;
 
 /**
@@ -132,7 +133,7 @@ public abstract class SE<S, L, R> {
      * @return the mapped value
      */
     public final <T> T either(Function<S, T> whenAny) {
-        return either((s, ignore) -> whenAny.apply(s), (s, ignore) -> whenAny.apply(s));
+        return whenAny.apply(s);
     }
 
     /**
@@ -187,7 +188,7 @@ public abstract class SE<S, L, R> {
     }
 
     /**
-     * Map the right value
+     * Map the right value, the mapping function runs at once (even on lazy values)
      *
      * @param f    mapping function
      * @param <RR> the new right type
@@ -202,7 +203,7 @@ public abstract class SE<S, L, R> {
      * @param <RR> the new right type
      * @return the mapped stateful either
      */
-    public final <RR> SE<S, L, RR> map(Function<R, RR> f) {
+    public <RR> SE<S, L, RR> map(Function<R, RR> f) {
         return mapS((ignore, x) -> f.apply(x));
     }
 
@@ -214,7 +215,7 @@ public abstract class SE<S, L, R> {
      * @return the mapped stateful either
      */
     public final <LL> SE<S, LL, R> mapSL(BiFunction<S, L, LL> f) {
-        return isLeft() ? left(state(), f.apply(state(), left())) : right(state(), right());
+        return isLeft() ? left(state(), f.apply(state(), left())) : (SE<S, LL, R>) this;
     }
 
     /**
@@ -285,6 +286,38 @@ public abstract class SE<S, L, R> {
         return new SERight<>(state, right);
     }
 
+    /**
+     * Construct an stateful Either lazy left value, the supplier is evaluated at most once
+     * and only when the left value is required.
+     *
+     * @param state the state value
+     * @param left  the left value supplier
+     * @param <S>   the state class
+     * @param <L>   the left type
+     * @param <R>   the right type
+     * @return one stateful lazy left instance
+     */
+    public static <S, L, R> SE<S, L, R> lazyLeft(S state, Supplier<L> left) {
+        return new SELazyLeft<>(state, new Lazy<>(left));
+    }
+
+    /**
+     * Construct an stateful Either lazy right value, the supplier is evaluated at most once
+     * and only when the right value is required. Mapping (with {@link #map}) a lazy right value
+     * is lazy too, the mapping functions run deferred (when the value is required). The functions
+     * receiving the state ({@link #mapS}, {@link #then}...) force the value and run at once.
+     *
+     * @param state the state value
+     * @param right the right value supplier
+     * @param <S>   the state class
+     * @param <L>   the left type
+     * @param <R>   the right type
+     * @return one stateful lazy right instance
+     */
+    public static <S, L, R> SE<S, L, R> lazyRight(S state, Supplier<R> right) {
+        return new SELazyRight<>(state, new Lazy<>(right));
+    }
+
     /**
      * Construct an stateful Either right value
      *
@@ -323,8 +356,48 @@ public abstract class SE<S, L, R> {
         return right(state, null);
     }
 
+    /**
+     * Lift an stateless either into an stateful one
+     *
+     * @param state the state value
+     * @param e     the stateless either
+     * @param <S>   the state type
+     * @param <L>   the left type
+     * @param <R>   the right type
+     * @return one stateful either with the same value
+     */
+    public static <S, L, R> SE<S, L, R> lift(S state, E<L, R> e) {
+        return state(state, e);
+    }
+
+    /**
+     * Lift an stateless either into an stateful one without state
+     *
+     * @param e   the stateless either
+     * @param <L> the left type
+     * @param <R> the right type
+     * @return one stateful either with the same value
+     */
+    public static <L, R> SE<Void, L, R> lift(E<L, R> e) {
+        return state(null, e);
+    }
+
+    // forces one lazy result (e.g. before leaving one scope), the strict ones are returned as is
+    static <S, L, R> SE<S, L, R> strict(SE<S, L, R> x) {
+        if (x instanceof SELazyRight)
+            return new SERight<>(x.state(), x.right());
+        if (x instanceof SELazyLeft)
+            return new SELeft<>(x.state(), x.left());
+        return x;
+    }
+
     protected static <S, L, R> SE<S, L, R> state(S s, E<L, R> e) {
-        return e.either(l -> left(s, l), r -> right(s, r));
+        // strict values first, keeps the call site monomorphic when no lazy value is used
+        if (e instanceof Right)
+            return new SERight<>(s, ((Right<L, R>) e).right());
+        if (e instanceof Left)
+            return new SELeft<>(s, ((Left<L, R>) e).left());
+        return e.toSE(s);
     }
 
     /**
@@ -335,6 +408,23 @@ public abstract class SE<S, L, R> {
      * @return the first left value or all rights
      */
     public SE<S, L, Stream<R>> chain(Stream<BiFunction<S, R, E<L, R>>> xs) {
+        return chaining(null, null, xs);
+    }
+
+    /**
+     * Consume strictly the input stream up to any Left value (or the whole stream if
+     * no Left value exist) or up to the token cancellation (the input stream is closed then)
+     *
+     * @param token     the cancellation token checked before every step
+     * @param cancelled the left value when cancelled
+     * @param xs        the stateful computations
+     * @return the first left value, the cancelled value or all rights
+     */
+    public SE<S, L, Stream<R>> chain(CancellationToken token, L cancelled, Stream<BiFunction<S, R, E<L, R>>> xs) {
+        return chaining(token, cancelled, xs);
+    }
+
+    private SE<S, L, Stream<R>> chaining(CancellationToken token, L cancelled, Stream<BiFunction<S, R, E<L, R>>> xs) {
         if (isLeft())
             return map(r -> null);
 
@@ -345,6 +435,10 @@ public abstract class SE<S, L, R> {
         // x contains the previous right value
         SE<S, L, R> x = this;
         while (i.hasNext()) {
+            if (token != null && token.isCancelled()) {
+                xs.close();
+                return left(x.state(), cancelled);
+            }
             x = x.then(i.next());
             if (x.isLeft())
                 return x.map(r -> null);
@@ -361,7 +455,20 @@ public abstract class SE<S, L, R> {
      * @return the first left value or all rights
      */
     public <RR> SE<S, L, Stream<RR>> seq(Stream<Function<S, E<L, RR>>> xs) {
-        return map(ignore -> (RR) null).chain(xs.map(k -> (s, ignore) -> k.apply(s)));
+        return map(ignore -> (RR) null).chaining(null, null, xs.map(k -> (s, ignore) -> k.apply(s)));
+    }
+
+    /**
+     * Consume strictly the input stream up to any Left value (or the whole stream if
+     * no Left value exist) or up to the token cancellation (the input stream is closed then)
+     *
+     * @param token     the cancellation token checked before every step
+     * @param cancelled the left value when cancelled
+     * @param xs        the stateful computations
+     * @return the first left value, the cancelled value or all rights
+     */
+    public <RR> SE<S, L, Stream<RR>> seq(CancellationToken token, L cancelled, Stream<Function<S, E<L, RR>>> xs) {
+        return map(ignore -> (RR) null).chaining(token, cancelled, xs.map(k -> (s, ignore) -> k.apply(s)));
     }
 
     /**
@@ -383,6 +490,24 @@ public abstract class SE<S, L, R> {
      * @return the SE result, the state is the last used state
      */
     public <RR> SE<S, L, Stream<SE<S, L, RR>>> scan(Stream<Function<S, E<L, RR>>> xs) {
+        return scanning(null, null, xs);
+    }
+
+    /**
+     * Consume strictly the whole input stream, chaining the state possible state transformations
+     * and collecting all computation results, up to the token cancellation (the input stream is
+     * closed then)
+     *
+     * @param token     the cancellation token checked before every step
+     * @param cancelled the left value when cancelled
+     * @param xs        the stateful computations
+     * @return the SE result or the cancelled value, the state is the last used state
+     */
+    public <RR> SE<S, L, Stream<SE<S, L, RR>>> scan(CancellationToken token, L cancelled, Stream<Function<S, E<L, RR>>> xs) {
+        return scanning(token, cancelled, xs);
+    }
+
+    private <RR> SE<S, L, Stream<SE<S, L, RR>>> scanning(CancellationToken token, L cancelled, Stream<Function<S, E<L, RR>>> xs) {
         if (isLeft())
             return map(r -> null);
 
@@ -391,6 +516,10 @@ public abstract class SE<S, L, R> {
         // x contains the previous SE value (chaining the state)
         SE<S, L, RR> x = map(r -> null);
         while (i.hasNext()) {
+            if (token != null && token.isCancelled()) {
+                xs.close();
+                return left(x.state(), cancelled);
+            }
             x = x.run(i.next());
             acc.add(x);
         }
@@ -408,6 +537,246 @@ public abstract class SE<S, L, R> {
         return scan(stream(xs));
     }
 
+    /**
+     * Fold strictly the input computations up to any Left value, the whole input or the
+     * accumulator does not satisfy the predicate (checked before every computation). Only
+     * the accumulator is kept.
+     *
+     * @param xs            the stateful computations
+     * @param zero          the initial accumulator
+     * @param f             how to accumulate one right value
+     * @param continueWhile fold while the accumulator satisfies it
+     * @param <A>           the accumulator type
+     * @param <RR>          the computations right type
+     * @return the first left value or the accumulator
+     */
+    public <A, RR> SE<S, L, A> foldWhile(Iterable<Function<S, E<L, RR>>> xs, A zero, BiFunction<A, RR, A> f, Predicate<A> continueWhile) {
+        if (isLeft())
+            return (SE<S, L, A>) this;
+
+        final S s = state();
+        A acc = zero;
+        final Iterator<Function<S, E<L, RR>>> i = xs.iterator();
+        while (continueWhile.test(acc) && i.hasNext()) {
+            final E<L, RR> x = i.next().apply(s);
+            if (x.isLeft())
+                return left(s, x.left());
+            acc = f.apply(acc, x.right());
+        }
+        return right(s, acc);
+    }
+
+    /**
+     * Fold strictly the input computations up to any Left value, the whole input or the
+     * accumulator does not satisfy the predicate (checked before every computation). Only
+     * the accumulator is kept.
+     *
+     * @param xs            the stateful computations
+     * @param zero          the initial accumulator
+     * @param f             how to accumulate one right value
+     * @param continueWhile fold while the accumulator satisfies it
+     * @param <A>           the accumulator type
+     * @param <RR>          the computations right type
+     * @return the first left value or the accumulator
+     */
+    public <A, RR> SE<S, L, A> foldWhile(Stream<Function<S, E<L, RR>>> xs, A zero, BiFunction<A, RR, A> f, Predicate<A> continueWhile) {
+        return foldWhile((Iterable<Function<S, E<L, RR>>>) xs::iterator, zero, f, continueWhile);
+    }
+
+    /**
+     * Reduce strictly the input computations up to any Left value (or the whole input if
+     * no Left value exist). Only the reduced value is kept.
+     *
+     * @param xs       the stateful computations
+     * @param identity the reduced value for an empty input
+     * @param op       how to reduce two right values
+     * @param <RR>     the computations right type
+     * @return the first left value or the reduced value
+     */
+    public <RR> SE<S, L, RR> reduce(Iterable<Function<S, E<L, RR>>> xs, RR identity, BinaryOperator<RR> op) {
+        return foldWhile(xs, identity, op, ignore -> true);
+    }
+
+    /**
+     * Reduce strictly the input computations up to any Left value (or the whole input if
+     * no Left value exist). Only the reduced value is kept.
+     *
+     * @param xs       the stateful computations
+     * @param identity the reduced value for an empty input
+     * @param op       how to reduce two right values
+     * @param <RR>     the computations right type
+     * @return the first left value or the reduced value
+     */
+    public <RR> SE<S, L, RR> reduce(Stream<Function<S, E<L, RR>>> xs, RR identity, BinaryOperator<RR> op) {
+        return foldWhile(xs, identity, op, ignore -> true);
+    }
+
+    /**
+     * Fold strictly the input computations of primitive values (which cannot fail, see
+     * {@code foldLongE} and {@code foldDoubleE} otherwise) up to the whole input or the accumulator
+     * does not satisfy the predicate (checked before every computation). Nothing is allocated by
+     * element.
+     *
+     * @param xs            the stateful computations
+     * @param zero          the initial accumulator
+     * @param f             how to accumulate one value
+     * @param continueWhile fold while the accumulator satisfies it
+     * @return the accumulator
+     */
+    public SE<S, L, Long> foldLong(Iterable<ToLongFunction<S>> xs, long zero, LongBinaryOperator f, LongPredicate continueWhile) {
+        if (isLeft())
+            return (SE<S, L, Long>) this;
+
+        final S s = state();
+        long acc = zero;
+        final Iterator<ToLongFunction<S>> i = xs.iterator();
+        while (continueWhile.test(acc) && i.hasNext())
+            acc = f.applyAsLong(acc, i.next().applyAsLong(s));
+        return right(s, acc);
+    }
+
+    /**
+     * Fold strictly the input computations of primitive values (which cannot fail, see
+     * {@code foldLongE} and {@code foldDoubleE} otherwise) up to the whole input or the accumulator
+     * does not satisfy the predicate (checked before every computation). Nothing is allocated by
+     * element.
+     *
+     * @param xs            the stateful computations
+     * @param zero          the initial accumulator
+     * @param f             how to accumulate one value
+     * @param continueWhile fold while the accumulator satisfies it
+     * @return the accumulator
+     */
+    public SE<S, L, Long> foldLong(Stream<ToLongFunction<S>> xs, long zero, LongBinaryOperator f, LongPredicate continueWhile) {
+        return foldLong((Iterable<ToLongFunction<S>>) xs::iterator, zero, f, continueWhile);
+    }
+
+    /**
+     * Fold strictly the input computations of primitive values (which cannot fail, see
+     * {@code foldLongE} and {@code foldDoubleE} otherwise) up to the whole input or the accumulator
+     * does not satisfy the predicate (checked before every computation). Nothing is allocated by
+     * element.
+     *
+     * @param xs            the stateful computations
+     * @param zero          the initial accumulator
+     * @param f             how to accumulate one value
+     * @param continueWhile fold while the accumulator satisfies it
+     * @return the accumulator
+     */
+    public SE<S, L, Double> foldDouble(Iterable<ToDoubleFunction<S>> xs, double zero, DoubleBinaryOperator f, DoublePredicate continueWhile) {
+        if (isLeft())
+            return (SE<S, L, Double>) this;
+
+        final S s = state();
+        double acc = zero;
+        final Iterator<ToDoubleFunction<S>> i = xs.iterator();
+        while (continueWhile.test(acc) && i.hasNext())
+            acc = f.applyAsDouble(acc, i.next().applyAsDouble(s));
+        return right(s, acc);
+    }
+
+    /**
+     * Fold strictly the input computations of primitive values (which cannot fail, see
+     * {@code foldLongE} and {@code foldDoubleE} otherwise) up to the whole input or the accumulator
+     * does not satisfy the predicate (checked before every computation). Nothing is allocated by
+     * element.
+     *
+     * @param xs            the stateful computations
+     * @param zero          the initial accumulator
+     * @param f             how to accumulate one value
+     * @param continueWhile fold while the accumulator satisfies it
+     * @return the accumulator
+     */
+    public SE<S, L, Double> foldDouble(Stream<ToDoubleFunction<S>> xs, double zero, DoubleBinaryOperator f, DoublePredicate continueWhile) {
+        return foldDouble((Iterable<ToDoubleFunction<S>>) xs::iterator, zero, f, continueWhile);
+    }
+
+    /**
+     * Fold strictly the input computations of primitive values up to any failure (see
+     * {@link Failure}), the whole input or the accumulator does not satisfy the predicate (checked
+     * before every computation). Nothing is allocated by element.
+     *
+     * @param xs            the stateful computations
+     * @param zero          the initial accumulator
+     * @param f             how to accumulate one value
+     * @param continueWhile fold while the accumulator satisfies it
+     * @return the first left value or the accumulator
+     */
+    public SE<S, L, Long> foldLongE(Iterable<LongStep<S, L>> xs, long zero, LongBinaryOperator f, LongPredicate continueWhile) {
+        if (isLeft())
+            return (SE<S, L, Long>) this;
+
+        final S s = state();
+        final Failure<L> failure = new Failure<>();
+        long acc = zero;
+        final Iterator<LongStep<S, L>> i = xs.iterator();
+        while (continueWhile.test(acc) && i.hasNext()) {
+            final long x = i.next().apply(s, failure);
+            if (failure.failed())
+                return left(s, failure.left());
+            acc = f.applyAsLong(acc, x);
+        }
+        return right(s, acc);
+    }
+
+    /**
+     * Fold strictly the input computations of primitive values up to any failure (see
+     * {@link Failure}), the whole input or the accumulator does not satisfy the predicate (checked
+     * before every computation). Nothing is allocated by element.
+     *
+     * @param xs            the stateful computations
+     * @param zero          the initial accumulator
+     * @param f             how to accumulate one value
+     * @param continueWhile fold while the accumulator satisfies it
+     * @return the first left value or the accumulator
+     */
+    public SE<S, L, Long> foldLongE(Stream<LongStep<S, L>> xs, long zero, LongBinaryOperator f, LongPredicate continueWhile) {
+        return foldLongE((Iterable<LongStep<S, L>>) xs::iterator, zero, f, continueWhile);
+    }
+
+    /**
+     * Fold strictly the input computations of primitive values up to any failure (see
+     * {@link Failure}), the whole input or the accumulator does not satisfy the predicate (checked
+     * before every computation). Nothing is allocated by element.
+     *
+     * @param xs            the stateful computations
+     * @param zero          the initial accumulator
+     * @param f             how to accumulate one value
+     * @param continueWhile fold while the accumulator satisfies it
+     * @return the first left value or the accumulator
+     */
+    public SE<S, L, Double> foldDoubleE(Iterable<DoubleStep<S, L>> xs, double zero, DoubleBinaryOperator f, DoublePredicate continueWhile) {
+        if (isLeft())
+            return (SE<S, L, Double>) this;
+
+        final S s = state();
+        final Failure<L> failure = new Failure<>();
+        double acc = zero;
+        final Iterator<DoubleStep<S, L>> i = xs.iterator();
+        while (continueWhile.test(acc) && i.hasNext()) {
+            final double x = i.next().apply(s, failure);
+            if (failure.failed())
+                return left(s, failure.left());
+            acc = f.applyAsDouble(acc, x);
+        }
+        return right(s, acc);
+    }
+
+    /**
+     * Fold strictly the input computations of primitive values up to any failure (see
+     * {@link Failure}), the whole input or the accumulator does not satisfy the predicate (checked
+     * before every computation). Nothing is allocated by element.
+     *
+     * @param xs            the stateful computations
+     * @param zero          the initial accumulator
+     * @param f             how to accumulate one value
+     * @param continueWhile fold while the accumulator satisfies it
+     * @return the first left value or the accumulator
+     */
+    public SE<S, L, Double> foldDoubleE(Stream<DoubleStep<S, L>> xs, double zero, DoubleBinaryOperator f, DoublePredicate continueWhile) {
+        return foldDoubleE((Iterable<DoubleStep<S, L>>) xs::iterator, zero, f, continueWhile);
+    }
+
     /**
      * Consume computations until one right result.
      *
@@ -445,6 +814,54 @@ public abstract class SE<S, L, R> {
         return any(stream(xs));
     }
 
+    /**
+     * Consume computations until one right result, trying first the computations with the lowest
+     * expected cost according to the shared statistics (which are updated with every try).
+     *
+     * @param stats the statistics of these computations
+     * @param xs    the stateful computations
+     * @param <RR>  the resulting type
+     * @return the SE result or all Left values (in the given order)
+     */
+    public <RR> SE<S, Stream<L>, RR> adaptiveAny(AnyStats stats, List<Function<S, E<L, RR>>> xs) {
+        if (stats.size() != xs.size())
+            throw new IllegalArgumentException("the statistics are for " + stats.size() + " computations, not " + xs.size());
+        if (isLeft())
+            return left(state(), Stream.empty());
+
+        final Object[] lefts = new Object[xs.size()];
+        for (int i : stats.order()) {
+            final long start = stats.nanoTime();
+            boolean success = false;
+            final E<L, RR> x;
+            try {
+                x = xs.get(i).apply(state());
+                success = x.isRight();
+            } finally {
+                // one exception is one failed try too
+                stats.record(i, success, stats.nanoTime() - start);
+            }
+            if (success)
+                return right(state(), x.right());
+            lefts[i] = x.left();
+        }
+
+        return left(state(), stream(lefts).map(l -> (L) l));
+    }
+
+    /**
+     * Consume computations until one right result, trying first the computations with the lowest
+     * expected cost according to the shared statistics (which are updated with every try).
+     *
+     * @param stats the statistics of these computations
+     * @param xs    the stateful computations
+     * @param <RR>  the resulting type
+     * @return the SE result or all Left values (in the given order)
+     */
+    public <RR> SE<S, Stream<L>, RR> adaptiveAny(AnyStats stats, Function<S, E<L, RR>>... xs) {
+        return adaptiveAny(stats, asList(xs));
+    }
+
     /**
      * Check one assertion
      *
@@ -453,8 +870,11 @@ public abstract class SE<S, L, R> {
      * @return the SE result
      */
     public SE<S, L, R> guard_(BiFunction<S, R, Boolean> trueOrFail, BiFunction<S, R, L> error) {
-        return then((s, r) -> trueOrFail.apply(s, r) ? success(r) : failure(error.apply(s, r)));
-
+        // not through `then`, the same instance is kept when the assertion holds
+        if (isLeft())
+            return this;
+        final R r = right();
+        return trueOrFail.apply(s, r) ? this : left(s, error.apply(s, r));
     }
 
     /**
@@ -517,9 +937,88 @@ public abstract class SE<S, L, R> {
 
     }
 
+    private <A, RR> SE<S, L, RR> using(A a, Consumer<A> release, Consumer<A> invalidate, BiFunction<A, SE<S, L, R>, SE<S, L, RR>> k) {
+        final SE<S, L, RR> r;
+        try {
+            // lazy results must be computed while the resource is still held
+            r = strict(k.apply(a, this));
+        } catch (RuntimeException | Error e) {
+            try {
+                invalidate.accept(a);
+            } catch (RuntimeException x) {
+                e.addSuppressed(x);
+            }
+            throw e;
+        }
+        release.accept(a);
+        return r;
+    }
+
+    /**
+     * Acquire one resource for a part of the pipeline, it is always released (on right, left
+     * or exception)
+     *
+     * @param acquire how to get the resource
+     * @param release how to release the resource
+     * @param k       the part of the pipeline using the resource
+     * @param <A>     the resource type
+     * @param <RR>    the resulting right type
+     * @return the SE result
+     */
+    public <A, RR> SE<S, L, RR> using(BiFunction<S, R, A> acquire, Consumer<A> release, BiFunction<A, SE<S, L, R>, SE<S, L, RR>> k) {
+        if (isLeft())
+            return (SE<S, L, RR>) this;
+        return using(acquire.apply(state(), right()), release, release, k);
+    }
+
+    /**
+     * Borrow one pooled resource for a part of the pipeline, it is always given back (on right
+     * or left) or destroyed (on exception)
+     *
+     * @param pool the resource pool
+     * @param k    the part of the pipeline using the resource
+     * @param <A>  the resource type
+     * @param <RR> the resulting right type
+     * @return the SE result
+     */
+    public <A, RR> SE<S, L, RR> using(ResourcePool<A> pool, BiFunction<A, SE<S, L, R>, SE<S, L, RR>> k) {
+        if (isLeft())
+            return (SE<S, L, RR>) this;
+        return using(pool.acquire(), pool::release, pool::invalidate, k);
+    }
+
+    /**
+     * Chain one computation using one resource, it is always released (on right, left
+     * or exception)
+     *
+     * @param acquire how to get the resource
+     * @param release how to release the resource
+     * @param use     the computation using the resource
+     * @param <A>     the resource type
+     * @param <RR>    the resulting right type
+     * @return the SE result
+     */
+    public <A, RR> SE<S, L, RR> bracket(BiFunction<S, R, A> acquire, Consumer<A> release, BiFunction<S, A, E<L, RR>> use) {
+        return using(acquire, release, (a, m) -> m.then((s, ignore) -> use.apply(s, a)));
+    }
+
+    /**
+     * Chain one computation borrowing one pooled resource, it is always given back (on right
+     * or left) or destroyed (on exception)
+     *
+     * @param pool the resource pool
+     * @param use  the computation using the resource
+     * @param <A>  the resource type
+     * @param <RR> the resulting right type
+     * @return the SE result
+     */
+    public <A, RR> SE<S, L, RR> bracket(ResourcePool<A> pool, BiFunction<A, R, E<L, RR>> use) {
+        return using(pool, (a, m) -> m.then(r -> use.apply(a, r)));
+    }
+
     public <RR, X extends UnsafeException> SE<S, L, RR> mappingUnsafe(Class<X> clazz, Function<X, L> f, Function<SE<S, L, R>, SE<S, L, RR>> k) {
         try {
-            return k.apply(this);
+            return strict(k.apply(this));
         } catch (UnsafeException e) {
             if (clazz.isInstance(e))
                 return left(state(), f.apply((X) e));
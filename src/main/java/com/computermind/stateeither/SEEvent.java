@@ -0,0 +1,18 @@
+package com.computermind.stateeither;
+
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+abstract class SEEvent extends Event {
+    @Label("Label")
+    String label;
+
+    @Label("Outcome")
+    @Description("Left, Right or Exception")
+    String outcome;
+
+    @Label("Left Type")
+    @Description("The left value class (lazy if not computed yet) or the exception class")
+    String leftType;
+}
@@ -0,0 +1,146 @@
+package com.computermind.stateeither;
+
+import jdk.jfr.EventType;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * JDK Flight Recorder instrumentation, wraps steps (for {@code then}, {@code seq}, {@code scan},
+ * {@code any}...) and whole pipelines (for {@code mappingUnsafe}) emitting one event by execution
+ * with the label, the outcome, the duration and the left type.
+ * <p>
+ * The events ({@code com.computermind.stateeither.Step} and {@code com.computermind.stateeither.Pipeline})
+ * are disabled by default, enable them on the recording settings. While they are not enabled by
+ * any recording, the wrappers only check {@link EventType#isEnabled()}.
+ */
+public final class SEEvents {
+    private static final EventType STEP = EventType.getEventType(StepEvent.class);
+    private static final EventType PIPELINE = EventType.getEventType(PipelineEvent.class);
+
+    private static final String LEFT = "Left";
+    private static final String RIGHT = "Right";
+    private static final String EXCEPTION = "Exception";
+    // the lazy left values are not forced to get their type
+    private static final String LAZY = "lazy";
+
+    private SEEvents() {
+    }
+
+    private static String type(Object x) {
+        return x == null ? null : x.getClass().getName();
+    }
+
+    private static void commit(SEEvent event, String label, E<?, ?> e) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.label = label;
+            event.outcome = e.isLeft() ? LEFT : RIGHT;
+            event.leftType = !e.isLeft() ? null : e instanceof LazyLeft ? LAZY : type(e.left());
+            event.commit();
+        }
+    }
+
+    private static void commit(SEEvent event, String label, SE<?, ?, ?> e) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.label = label;
+            event.outcome = e.isLeft() ? LEFT : RIGHT;
+            event.leftType = !e.isLeft() ? null : e instanceof SELazyLeft ? LAZY : type(e.left());
+            event.commit();
+        }
+    }
+
+    private static void commit(SEEvent event, String label, RuntimeException e) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.label = label;
+            event.outcome = EXCEPTION;
+            event.leftType = type(e);
+            event.commit();
+        }
+    }
+
+    /**
+     * Instrument one step
+     *
+     * @param label the step label
+     * @param k     the step
+     * @param <S>   the state type
+     * @param <R>   the input right type
+     * @param <L>   the left type
+     * @param <RR>  the resulting right type
+     * @return the instrumented step
+     */
+    public static <S, R, L, RR> BiFunction<S, R, E<L, RR>> step(String label, BiFunction<S, R, E<L, RR>> k) {
+        return (s, r) -> {
+            if (!STEP.isEnabled())
+                return k.apply(s, r);
+            final StepEvent event = new StepEvent();
+            event.begin();
+            try {
+                final E<L, RR> e = k.apply(s, r);
+                commit(event, label, e);
+                return e;
+            } catch (RuntimeException e) {
+                commit(event, label, e);
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Instrument one step
+     *
+     * @param label the step label
+     * @param k     the step
+     * @param <S>   the state type
+     * @param <L>   the left type
+     * @param <RR>  the resulting right type
+     * @return the instrumented step
+     */
+    public static <S, L, RR> Function<S, E<L, RR>> step(String label, Function<S, E<L, RR>> k) {
+        return s -> {
+            if (!STEP.isEnabled())
+                return k.apply(s);
+            final StepEvent event = new StepEvent();
+            event.begin();
+            try {
+                final E<L, RR> e = k.apply(s);
+                commit(event, label, e);
+                return e;
+            } catch (RuntimeException e) {
+                commit(event, label, e);
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * Instrument one pipeline
+     *
+     * @param label the pipeline label
+     * @param k     the pipeline
+     * @param <S>   the state type
+     * @param <L>   the left type
+     * @param <R>   the input right type
+     * @param <RR>  the resulting right type
+     * @return the instrumented pipeline
+     */
+    public static <S, L, R, RR> Function<SE<S, L, R>, SE<S, L, RR>> pipeline(String label, Function<SE<S, L, R>, SE<S, L, RR>> k) {
+        return m -> {
+            if (!PIPELINE.isEnabled())
+                return k.apply(m);
+            final PipelineEvent event = new PipelineEvent();
+            event.begin();
+            try {
+                final SE<S, L, RR> r = k.apply(m);
+                commit(event, label, r);
+                return r;
+            } catch (RuntimeException e) {
+                commit(event, label, e);
+                throw e;
+            }
+        };
+    }
+}
@@ -0,0 +1,334 @@
+package com.computermind.stateeither;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Dependency graph of named steps, the steps without pending inputs run concurrently.
+ * <p>
+ * Every step receives the initial state (or a copy of it) and the results of the previous steps.
+ * The steps returning a different state (the copy or a new one) are merged (in declaration order)
+ * into the initial state with the merge function. The first left value cancels the steps not
+ * started yet and is the result of the run.
+ * <p>
+ * Without copy function all the concurrent steps share the same state instance, it must be then
+ * immutable or thread safe. With a copy function every step receives its own copy and may mutate
+ * it, the copies are merged as above.
+ *
+ * @param <S> the state type
+ * @param <L> the left type
+ */
+public final class SEGraph<S, L> {
+    private final UnaryOperator<S> copy;
+    private final BinaryOperator<S> merge;
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> index = new HashMap<>();
+    private final List<int[]> inputs = new ArrayList<>();
+    private final List<BiFunction<S, Results, ? extends SE<S, L, ?>>> steps = new ArrayList<>();
+    private Consumer<Timing> timings = ignore -> {
+    };
+
+    /**
+     * Construct a new one empty graph
+     *
+     * @param merge how to merge the state returned by one step into the current state
+     */
+    public SEGraph(BinaryOperator<S> merge) {
+        this(s -> s, merge);
+    }
+
+    /**
+     * Construct a new one empty graph where every step runs with its own copy of the state
+     *
+     * @param copy  how to copy the initial state for every step
+     * @param merge how to merge the state returned by one step into the current state
+     */
+    public SEGraph(UnaryOperator<S> copy, BinaryOperator<S> merge) {
+        this.copy = copy;
+        this.merge = merge;
+    }
+
+    /**
+     * Static constructor.
+     *
+     * @param merge how to merge the state returned by one step into the current state
+     * @param <S>   the state type
+     * @param <L>   the left type
+     * @return a new one empty graph
+     */
+    public static <S, L> SEGraph<S, L> graph(BinaryOperator<S> merge) {
+        return new SEGraph<>(merge);
+    }
+
+    /**
+     * Static constructor.
+     *
+     * @param copy  how to copy the initial state for every step
+     * @param merge how to merge the state returned by one step into the current state
+     * @param <S>   the state type
+     * @param <L>   the left type
+     * @return a new one empty graph where every step runs with its own copy of the state
+     */
+    public static <S, L> SEGraph<S, L> graph(UnaryOperator<S> copy, BinaryOperator<S> merge) {
+        return new SEGraph<>(copy, merge);
+    }
+
+    /**
+     * Declare one stateful step, the inputs must be already declared
+     *
+     * @param name   the step name
+     * @param k      the step computation
+     * @param inputs the steps required by this one
+     * @return this graph
+     */
+    public SEGraph<S, L> stepS(String name, BiFunction<S, Results, ? extends SE<S, L, ?>> k, String... inputs) {
+        if (index.containsKey(name))
+            throw new IllegalArgumentException("duplicated step " + name);
+        final int[] xs = new int[inputs.length];
+        for (int i = 0; i < inputs.length; i++) {
+            final Integer x = index.get(inputs[i]);
+            if (x == null)
+                throw new IllegalArgumentException("unknown input " + inputs[i] + " of step " + name);
+            xs[i] = x;
+        }
+        index.put(name, names.size());
+        names.add(name);
+        this.inputs.add(xs);
+        steps.add(k);
+        return this;
+    }
+
+    /**
+     * Declare one step, the inputs must be already declared
+     *
+     * @param name   the step name
+     * @param k      the step computation
+     * @param inputs the steps required by this one
+     * @return this graph
+     */
+    public SEGraph<S, L> step(String name, BiFunction<S, Results, E<L, ?>> k, String... inputs) {
+        return stepS(name, (s, xs) -> SE.lift(s, k.apply(s, xs)), inputs);
+    }
+
+    /**
+     * Action to do with the timing of every run (left or right)
+     *
+     * @param timings the action
+     * @return this graph
+     */
+    public SEGraph<S, L> timings(Consumer<Timing> timings) {
+        this.timings = timings;
+        return this;
+    }
+
+    /**
+     * Run all the steps on the common pool
+     *
+     * @param state the initial state
+     * @return the first left value or the results of all steps
+     */
+    public SE<S, L, Results> run(S state) {
+        return run(state, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Run all the steps
+     *
+     * @param state the initial state
+     * @param pool  where to run the steps
+     * @return the first left value or the results of all steps
+     */
+    public SE<S, L, Results> run(S state, Executor pool) {
+        final int n = names.size();
+        final Results results = new Results(index, new CancellationToken(), new Timing(names, index, inputs));
+        final AtomicReference<SE<S, L, ?>> firstLeft = new AtomicReference<>();
+        final List<CompletableFuture<SE<S, L, ?>>> fs = new ArrayList<>(n);
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < n; i++) {
+            final int node = i;
+            final int[] xs = inputs.get(i);
+            final CompletableFuture<?>[] deps = new CompletableFuture<?>[xs.length];
+            for (int j = 0; j < xs.length; j++)
+                deps[j] = fs.get(xs[j]);
+            fs.add(CompletableFuture.allOf(deps).thenApplyAsync(ignore -> {
+                if (results.token.isCancelled())
+                    return null;
+                final long t0 = System.nanoTime();
+                try {
+                    final SE<S, L, ?> r = steps.get(node).apply(copy.apply(state), results);
+                    if (r.isLeft()) {
+                        firstLeft.compareAndSet(null, r);
+                        results.token.cancel();
+                    } else
+                        results.values[node] = r.right();
+                    return r;
+                } catch (RuntimeException e) {
+                    results.token.cancel();
+                    throw e;
+                } finally {
+                    results.timing.start[node] = t0 - start;
+                    results.timing.end[node] = System.nanoTime() - start;
+                }
+            }, pool));
+        }
+
+        Throwable error = null;
+        S merged = state;
+        for (int i = 0; i < n; i++) {
+            try {
+                final SE<S, L, ?> r = fs.get(i).join();
+                if (r != null && r.state() != state)
+                    merged = merge.apply(merged, r.state());
+            } catch (CompletionException e) {
+                if (error == null)
+                    error = e.getCause();
+            }
+        }
+        results.timing.elapsed = System.nanoTime() - start;
+        timings.accept(results.timing);
+
+        if (error instanceof RuntimeException)
+            throw (RuntimeException) error;
+        if (error instanceof Error)
+            throw (Error) error;
+        if (error != null)
+            throw new CompletionException(error);
+        final SE<S, L, ?> left = firstLeft.get();
+        return left != null ? SE.left(merged, left.left()) : SE.right(merged, results);
+    }
+
+    /**
+     * Results of one graph run
+     */
+    public static final class Results {
+        private final Map<String, Integer> index;
+        private final CancellationToken token;
+        private final Timing timing;
+        private final Object[] values;
+
+        private Results(Map<String, Integer> index, CancellationToken token, Timing timing) {
+            this.index = index;
+            this.token = token;
+            this.timing = timing;
+            this.values = new Object[index.size()];
+        }
+
+        /**
+         * The right value of one step, only the inputs of a step are available while it runs
+         *
+         * @param name the step name
+         * @param <T>  the right type of the step
+         * @return the right value
+         */
+        public <T> T get(String name) {
+            final Integer i = index.get(name);
+            if (i == null)
+                throw new IllegalArgumentException("unknown step " + name);
+            return (T) values[i];
+        }
+
+        /**
+         * The token cancelled on the first left value, long running steps may check it
+         *
+         * @return the run cancellation token
+         */
+        public CancellationToken token() {
+            return token;
+        }
+
+        /**
+         * The timing of the run
+         *
+         * @return the timing
+         */
+        public Timing timing() {
+            return timing;
+        }
+    }
+
+    /**
+     * Timing of one graph run, all times in nanoseconds relative to the run start
+     */
+    public static final class Timing {
+        private final List<String> names;
+        private final Map<String, Integer> index;
+        private final List<int[]> inputs;
+        private final long[] start;
+        private final long[] end;
+        private long elapsed;
+
+        private Timing(List<String> names, Map<String, Integer> index, List<int[]> inputs) {
+            this.names = names;
+            this.index = index;
+            this.inputs = inputs;
+            this.start = new long[names.size()];
+            this.end = new long[names.size()];
+        }
+
+        /**
+         * Time spent by one step
+         *
+         * @param name the step name
+         * @return the time in nanoseconds (zero if it did not run)
+         */
+        public long nanos(String name) {
+            final Integer i = index.get(name);
+            if (i == null)
+                throw new IllegalArgumentException("unknown step " + name);
+            return end[i] - start[i];
+        }
+
+        /**
+         * Time spent by the whole run
+         *
+         * @return the time in nanoseconds
+         */
+        public long elapsedNanos() {
+            return elapsed;
+        }
+
+        /**
+         * The chain of steps finishing last, every step is preceded by its latest finishing input
+         *
+         * @return the step names from the first to the last one
+         */
+        public List<String> criticalPath() {
+            final List<String> path = new ArrayList<>();
+            int last = -1;
+            for (int i = 0; i < end.length; i++)
+                if (last < 0 || end[i] > end[last])
+                    last = i;
+            while (last >= 0) {
+                path.add(names.get(last));
+                int previous = -1;
+                for (int x : inputs.get(last))
+                    if (previous < 0 || end[x] > end[previous])
+                        previous = x;
+                last = previous;
+            }
+            Collections.reverse(path);
+            return path;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder();
+            for (String name : criticalPath())
+                sb.append(sb.length() == 0 ? "" : " -> ").append(name).append(' ').append(nanos(name) / 1000).append("us");
+            return sb.append(" (").append(elapsed / 1000).append("us)").toString();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.computermind.stateeither;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+final class SELazyRight<S, L, R> extends SE<S, L, R> {
+    private final Lazy<R> x;
+
+    SELazyRight(S s, Lazy<R> x) {
+        super(s);
+        this.x = x;
+    }
+
+    @Override
+    public boolean isLeft() {
+        return false;
+    }
+
+    @Override
+    public boolean isRight() {
+        return true;
+    }
+
+    @Override
+    public L left() {
+        throw new IllegalStateException("cannot get the left value from a right value");
+    }
+
+    @Override
+    public R right() {
+        return x.get();
+    }
+
+    @Override
+    public <RR> SE<S, L, RR> then(BiFunction<S, R, E<L, RR>> k) {
+        return state(state(), k.apply(state(), x.get()));
+    }
+
+    @Override
+    public <T> T either(BiFunction<S, L, T> whenLeft, BiFunction<S, R, T> whenRight) {
+        return whenRight.apply(state(), x.get());
+    }
+
+    @Override
+    public <RR> SE<S, L, RR> mapS(BiFunction<S, R, RR> f) {
+        return new SERight<>(state(), f.apply(state(), x.get()));
+    }
+
+    @Override
+    public <RR> SE<S, L, RR> map(Function<R, RR> f) {
+        return new SELazyRight<>(state(), new Lazy<>(() -> f.apply(x.get())));
+    }
+
+}
@@ -32,7 +32,7 @@ final class SELeft<S, L, R> extends SE<S, L, R> {
 
     @Override
     public <RR> SE<S, L, RR> then(BiFunction<S, R, E<L, RR>> k) {
-        return new SELeft(state(), x);
+        return (SE<S, L, RR>) this;
     }
 
     @Override
@@ -42,7 +42,7 @@ final class SELeft<S, L, R> extends SE<S, L, R> {
 
     @Override
     public <RR> SE<S, L, RR> mapS(BiFunction<S, R, RR> f) {
-        return new SELeft<>(state(), x);
+        return (SE<S, L, RR>) this;
     }
 
 }
@@ -0,0 +1,85 @@
+package com.computermind.stateeither;
+
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Accumulator to be used as (or inside) a shared state, every thread accumulates on its own
+ * shard and the shards are merged on read. The lock of a shard is only shared by its owner
+ * thread and the readers, so it is never contended by the pipelines.
+ * <p>
+ * The shards of finished threads are kept (and merged by every snapshot) until they are drained
+ * into the base accumulator, call {@link #drain()} from time to time with short lived threads.
+ *
+ * @param <T> the accumulated values type
+ * @param <A> the accumulator type (mutable)
+ */
+public final class ShardedAccumulator<T, A> {
+    private final Supplier<A> supplier;
+    private final BiConsumer<A, T> accumulator;
+    private final BiConsumer<A, A> combiner;
+    private final ThreadLocalState<A> shards;
+    // the drained shards, also the lock of the readers
+    private final A base;
+
+    /**
+     * Construct a new one sharded accumulator
+     *
+     * @param supplier    the empty accumulator
+     * @param accumulator how to accumulate one value
+     * @param combiner    how to merge the second accumulator into the first one
+     */
+    public ShardedAccumulator(Supplier<A> supplier, BiConsumer<A, T> accumulator, BiConsumer<A, A> combiner) {
+        this.supplier = supplier;
+        this.accumulator = accumulator;
+        this.combiner = combiner;
+        this.shards = new ThreadLocalState<>(supplier);
+        this.base = supplier.get();
+    }
+
+    /**
+     * Accumulate one value on the current thread shard
+     *
+     * @param x the value
+     */
+    public void accumulate(T x) {
+        final A shard = shards.get();
+        synchronized (shard) {
+            accumulator.accept(shard, x);
+        }
+    }
+
+    /**
+     * Merge all the shards
+     *
+     * @return a new accumulator with all the accumulated values
+     */
+    public A snapshot() {
+        synchronized (base) {
+            final A acc = supplier.get();
+            combiner.accept(acc, base);
+            return shards.fold(acc, this::merge);
+        }
+    }
+
+    /**
+     * Merge the shards of the finished threads into the base accumulator and forget them
+     */
+    public void drain() {
+        synchronized (base) {
+            shards.drain(base, this::merge);
+        }
+    }
+
+    private A merge(A acc, A shard) {
+        synchronized (shard) {
+            combiner.accept(acc, shard);
+        }
+        return acc;
+    }
+
+    // number of live shards
+    int shards() {
+        return shards.fold(0, (n, ignore) -> n + 1);
+    }
+}
@@ -0,0 +1,192 @@
+package com.computermind.stateeither;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.computermind.stateeither.Left.failure;
+
+/**
+ * Coalesces concurrent executions of the same step with the same key: one caller executes the
+ * step and the concurrent callers with the same key wait for and share its result (or its
+ * exception). Nothing is retained once the execution finishes, the next caller executes the
+ * step again (it is not a cache).
+ * <p>
+ * The waiting callers get the result computed with the executing caller state, so the step must
+ * only depend on the key.
+ *
+ * @param <K>  the key type
+ * @param <L>  the left type
+ * @param <RR> the right type
+ */
+public final class SingleFlight<K, L, RR> {
+    private final ConcurrentHashMap<K, CompletableFuture<E<L, RR>>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Wrap one step for {@link SE#then(BiFunction)}, the step is coalesced by key
+     *
+     * @param keyFn the key of one right value
+     * @param step  the step
+     * @param <S>   the state type
+     * @param <R>   the input right type
+     * @param <K>   the key type
+     * @param <L>   the left type
+     * @param <RR>  the resulting right type
+     * @return the coalesced step
+     */
+    public static <S, R, K, L, RR> BiFunction<S, R, E<L, RR>> singleFlight(Function<R, K> keyFn, BiFunction<S, R, E<L, RR>> step) {
+        final SingleFlight<K, L, RR> calls = new SingleFlight<>();
+        return (s, r) -> calls.execute(keyFn.apply(r), () -> step.apply(s, r));
+    }
+
+    /**
+     * Wrap one step for {@link SE#then(BiFunction)}, the step is coalesced by key and the
+     * concurrent callers wait at most the given time
+     *
+     * @param keyFn     the key of one right value
+     * @param step      the step
+     * @param timeout   the maximum waiting time
+     * @param unit      the timeout unit
+     * @param onTimeout the left value when waiting too much
+     * @param <S>       the state type
+     * @param <R>       the input right type
+     * @param <K>       the key type
+     * @param <L>       the left type
+     * @param <RR>      the resulting right type
+     * @return the coalesced step
+     */
+    public static <S, R, K, L, RR> BiFunction<S, R, E<L, RR>> singleFlight(Function<R, K> keyFn, BiFunction<S, R, E<L, RR>> step,
+                                                                        long timeout, TimeUnit unit, Function<K, L> onTimeout) {
+        final SingleFlight<K, L, RR> calls = new SingleFlight<>();
+        return (s, r) -> calls.execute(keyFn.apply(r), () -> step.apply(s, r), timeout, unit, onTimeout);
+    }
+
+    /**
+     * Wrap one asynchronous step, the step is coalesced by key
+     *
+     * @param keyFn the key of one input value
+     * @param step  the asynchronous step
+     * @param <R>   the input type
+     * @param <K>   the key type
+     * @param <L>   the left type
+     * @param <RR>  the resulting right type
+     * @return the coalesced step
+     */
+    public static <R, K, L, RR> Function<R, CompletableFuture<E<L, RR>>> singleFlightAsync(Function<R, K> keyFn,
+                                                                                         Function<R, CompletionStage<E<L, RR>>> step) {
+        final SingleFlight<K, L, RR> calls = new SingleFlight<>();
+        return r -> calls.executeAsync(keyFn.apply(r), () -> step.apply(r));
+    }
+
+    /**
+     * Number of executions in progress
+     *
+     * @return the number of keys being executed
+     */
+    public int inFlight() {
+        return calls.size();
+    }
+
+    /**
+     * Execute the step or wait for the execution in progress with the same key
+     *
+     * @param key  the key
+     * @param step the step
+     * @return the step result
+     */
+    public E<L, RR> execute(K key, Supplier<E<L, RR>> step) {
+        final CompletableFuture<E<L, RR>> mine = new CompletableFuture<>();
+        final CompletableFuture<E<L, RR>> running = calls.putIfAbsent(key, mine);
+        if (running == null)
+            return lead(key, mine, step);
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * Execute the step or wait (at most the given time) for the execution in progress with the
+     * same key
+     *
+     * @param key       the key
+     * @param step      the step
+     * @param timeout   the maximum waiting time
+     * @param unit      the timeout unit
+     * @param onTimeout the left value when waiting too much
+     * @return the step result
+     */
+    public E<L, RR> execute(K key, Supplier<E<L, RR>> step, long timeout, TimeUnit unit, Function<K, L> onTimeout) {
+        final CompletableFuture<E<L, RR>> mine = new CompletableFuture<>();
+        final CompletableFuture<E<L, RR>> running = calls.putIfAbsent(key, mine);
+        if (running == null)
+            return lead(key, mine, step);
+        try {
+            return running.get(timeout, unit);
+        } catch (TimeoutException e) {
+            return failure(onTimeout.apply(key));
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnsafeException(e);
+        }
+    }
+
+    private E<L, RR> lead(K key, CompletableFuture<E<L, RR>> mine, Supplier<E<L, RR>> step) {
+        try {
+            final E<L, RR> r = step.get();
+            mine.complete(r);
+            return r;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, mine);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException)
+            return (RuntimeException) e;
+        if (e instanceof Error)
+            throw (Error) e;
+        return new UnsafeException(e);
+    }
+
+    /**
+     * Start the asynchronous step or share the execution in progress with the same key
+     *
+     * @param key  the key
+     * @param step the asynchronous step
+     * @return the step result
+     */
+    public CompletableFuture<E<L, RR>> executeAsync(K key, Supplier<CompletionStage<E<L, RR>>> step) {
+        final CompletableFuture<E<L, RR>> mine = new CompletableFuture<>();
+        final CompletableFuture<E<L, RR>> running = calls.putIfAbsent(key, mine);
+        if (running == null) {
+            try {
+                step.get().whenComplete((r, e) -> {
+                    calls.remove(key, mine);
+                    if (e != null)
+                        mine.completeExceptionally(e);
+                    else
+                        mine.complete(r);
+                });
+            } catch (RuntimeException | Error e) {
+                calls.remove(key, mine);
+                mine.completeExceptionally(e);
+            }
+        }
+        // a dependent future, so no caller can complete the shared one
+        return (running == null ? mine : running).thenApply(Function.identity());
+    }
+}
@@ -0,0 +1,230 @@
+package com.computermind.stateeither;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Off-heap (direct memory) workspace to be used as state, large per-run buffers and tables live
+ * outside the heap so they never get promoted nor copied by the garbage collector.
+ * <p>
+ * The arena is a bump allocator handing out typed views (native byte order, 8 bytes aligned).
+ * Arenas acquired from a {@link Pool} give their memory back to it when released, so it is reused
+ * by the next runs (every acquisition is a new arena instance, releasing a former one again does
+ * nothing). Release the arena when the pipeline finishes, e.g.
+ * {@code .with(StateArena.release(), StateArena.release())}. After releasing it, the views handed
+ * out must not be used, and the contents are not cleared between runs.
+ * <p>
+ * An exception skips {@code with}, so pipelines which may throw must release the arena in a
+ * {@code try}-with-resources block (or acquire it with {@link SE#using}) to not lose it.
+ * <p>
+ * The direct memory itself is only freed when the garbage collector collects the buffer (there is
+ * no portable way to free it before). That happens to the arenas not pooled and to the arenas
+ * released when their pool is full, use a pool large enough for the concurrent runs (see
+ * {@link Pool#dropped()}) to keep the off-heap usage stable.
+ * <p>
+ * One arena is not thread safe, use it from one pipeline at a time.
+ */
+public final class StateArena implements AutoCloseable {
+    private static final int ALIGNMENT = 8;
+
+    private final ByteBuffer memory;
+    private final Pool pool;
+    private int top;
+    private boolean released;
+
+    private StateArena(ByteBuffer memory, Pool pool) {
+        this.memory = memory;
+        this.pool = pool;
+    }
+
+    private static ByteBuffer direct(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Construct a new one (not pooled) arena
+     *
+     * @param capacity the arena size in bytes
+     * @return the arena
+     */
+    public static StateArena allocate(int capacity) {
+        return new StateArena(direct(capacity), null);
+    }
+
+    /**
+     * Construct an stateful Either using this arena as state
+     *
+     * @param <L> the left type
+     * @return one stateful right instance
+     */
+    public <L> SE<StateArena, L, Object> run() {
+        return SE.run(this);
+    }
+
+    /**
+     * Arena size
+     *
+     * @return the size in bytes
+     */
+    public int capacity() {
+        return memory.capacity();
+    }
+
+    /**
+     * Space already handed out
+     *
+     * @return the size in bytes
+     */
+    public int used() {
+        return top;
+    }
+
+    /**
+     * Hand out one region
+     *
+     * @param size the region size in bytes
+     * @return the region view
+     * @throws IllegalStateException if the arena is released or there is not enough space
+     */
+    public ByteBuffer bytes(int size) {
+        if (released)
+            throw new IllegalStateException("the arena has been released");
+        if (size < 0 || size > memory.capacity() - top)
+            throw new IllegalStateException("cannot allocate " + size + " bytes, " + (memory.capacity() - top) + " available");
+        final ByteBuffer x = memory.duplicate();
+        // Buffer casts keep the Java 8 binary signatures
+        ((Buffer) x).position(top);
+        ((Buffer) x).limit(top + size);
+        top = Math.min(memory.capacity(), (top + size + ALIGNMENT - 1) & -ALIGNMENT);
+        return x.slice().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Hand out one region of longs
+     *
+     * @param count the number of longs
+     * @return the region view
+     */
+    public LongBuffer longs(int count) {
+        return bytes(Math.multiplyExact(count, Long.BYTES)).asLongBuffer();
+    }
+
+    /**
+     * Hand out one region of ints
+     *
+     * @param count the number of ints
+     * @return the region view
+     */
+    public IntBuffer ints(int count) {
+        return bytes(Math.multiplyExact(count, Integer.BYTES)).asIntBuffer();
+    }
+
+    /**
+     * Hand out one region of doubles
+     *
+     * @param count the number of doubles
+     * @return the region view
+     */
+    public DoubleBuffer doubles(int count) {
+        return bytes(Math.multiplyExact(count, Double.BYTES)).asDoubleBuffer();
+    }
+
+    /**
+     * Hand out again the whole arena (the views handed out must not be used anymore)
+     */
+    public void reset() {
+        top = 0;
+    }
+
+    /**
+     * Release this arena, its memory goes back to its pool (if the pool is not full). Releasing it
+     * twice does nothing.
+     */
+    @Override
+    public void close() {
+        if (released)
+            return;
+        released = true;
+        reset();
+        if (pool != null && !pool.idle.offer(memory))
+            pool.dropped.increment();
+    }
+
+    /**
+     * Action releasing the arena, to be used with {@link SE#with(BiConsumer, BiConsumer)}
+     *
+     * @param <T> the left or right type
+     * @return the action
+     */
+    public static <T> BiConsumer<StateArena, T> release() {
+        return (arena, ignore) -> arena.close();
+    }
+
+    /**
+     * Bounded pool of arenas of the same size
+     */
+    public static final class Pool {
+        private final int capacity;
+        private final Queue<ByteBuffer> idle;
+        private final LongAdder dropped = new LongAdder();
+
+        /**
+         * Construct a new one empty pool
+         *
+         * @param capacity the arenas size in bytes
+         * @param maxIdle  the maximum number of arenas kept for reuse
+         */
+        public Pool(int capacity, int maxIdle) {
+            this.capacity = capacity;
+            this.idle = new ArrayBlockingQueue<>(maxIdle);
+        }
+
+        /**
+         * Get one new arena, reusing the memory of one released arena if any
+         *
+         * @return the arena
+         */
+        public StateArena acquire() {
+            final ByteBuffer x = idle.poll();
+            return new StateArena(x == null ? direct(capacity) : x, this);
+        }
+
+        /**
+         * Construct an stateful Either using one acquired arena as state (the pipeline must
+         * release it, see {@link StateArena})
+         *
+         * @param <L> the left type
+         * @return one stateful right instance
+         */
+        public <L> SE<StateArena, L, Object> run() {
+            return acquire().run();
+        }
+
+        /**
+         * Number of arenas ready for reuse
+         *
+         * @return the number of arenas
+         */
+        public int idle() {
+            return idle.size();
+        }
+
+        /**
+         * Number of arenas released when the pool was full, they are left to the garbage collector
+         * (a growing count means the pool is too small for the concurrent runs)
+         *
+         * @return the number of arenas
+         */
+        public long dropped() {
+            return dropped.sum();
+        }
+    }
+}
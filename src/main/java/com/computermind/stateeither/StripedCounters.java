@@ -0,0 +1,74 @@
+package com.computermind.stateeither;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keyed counters to be used as (or inside) a shared state, every counter is striped
+ * ({@link LongAdder}) so concurrent pipelines updating the same key do not contend.
+ *
+ * @param <K> the key type
+ */
+public final class StripedCounters<K> {
+    private final ConcurrentHashMap<K, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private LongAdder counter(K key) {
+        // get first, computeIfAbsent locks the bin even when the key exists
+        final LongAdder c = counters.get(key);
+        return c != null ? c : counters.computeIfAbsent(key, ignore -> new LongAdder());
+    }
+
+    /**
+     * Add some amount to one counter
+     *
+     * @param key    the counter
+     * @param amount the amount to add
+     */
+    public void add(K key, long amount) {
+        counter(key).add(amount);
+    }
+
+    /**
+     * Increment one counter
+     *
+     * @param key the counter
+     */
+    public void increment(K key) {
+        counter(key).increment();
+    }
+
+    /**
+     * Current value of one counter, it is not an atomic snapshot if there are concurrent updates
+     *
+     * @param key the counter
+     * @return the counter value (zero if never updated)
+     */
+    public long sum(K key) {
+        final LongAdder c = counters.get(key);
+        return c == null ? 0L : c.sum();
+    }
+
+    /**
+     * Snapshot of all the counters
+     *
+     * @return a new map with the current values
+     */
+    public Map<K, Long> snapshot() {
+        final Map<K, Long> xs = new HashMap<>();
+        counters.forEach((k, c) -> xs.put(k, c.sum()));
+        return xs;
+    }
+
+    /**
+     * Merge another counters snapshot into these counters
+     *
+     * @param snapshot the counters to add
+     * @return these counters
+     */
+    public StripedCounters<K> merge(Map<K, Long> snapshot) {
+        snapshot.forEach(this::add);
+        return this;
+    }
+}
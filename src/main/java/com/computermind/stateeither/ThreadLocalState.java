@@ -0,0 +1,117 @@
+package com.computermind.stateeither;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * One state instance per thread, the pipelines of one thread never share (nor contend for)
+ * their state with the other threads. All the per-thread states can be merged at read time.
+ * <p>
+ * Merging reads the states of other threads, do it once the pipelines have finished or use
+ * a thread safe state.
+ * <p>
+ * The states are kept after their threads finish (e.g. idle pool workers expiring and being
+ * replaced), with short lived threads use {@link #drain} from time to time to merge and forget
+ * them.
+ *
+ * @param <S> the state type
+ */
+public final class ThreadLocalState<S> {
+    private final Queue<Owned<S>> states = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<S> local;
+
+    /**
+     * Construct a new one per-thread state
+     *
+     * @param initial the initial state for every thread
+     */
+    public ThreadLocalState(Supplier<S> initial) {
+        local = ThreadLocal.withInitial(() -> {
+            final S s = initial.get();
+            states.add(new Owned<>(Thread.currentThread(), s));
+            return s;
+        });
+    }
+
+    /**
+     * The state of the current thread
+     *
+     * @return the state
+     */
+    public S get() {
+        return local.get();
+    }
+
+    /**
+     * Construct an stateful Either using the current thread state
+     *
+     * @param <L> the left type
+     * @return one stateful right instance
+     */
+    public <L> SE<S, L, Object> run() {
+        return SE.run(get());
+    }
+
+    /**
+     * Fold all the per-thread states
+     *
+     * @param zero the initial value
+     * @param f    the fold function
+     * @param <T>  the resulting type
+     * @return the folded value
+     */
+    public <T> T fold(T zero, BiFunction<T, S, T> f) {
+        T acc = zero;
+        for (Owned<S> x : states)
+            acc = f.apply(acc, x.state);
+        return acc;
+    }
+
+    /**
+     * Merge all the per-thread states into a new one
+     *
+     * @param zero  the merged state (must not be any of the per-thread states)
+     * @param merge the merge function
+     * @return the merged state
+     */
+    public S merge(S zero, BinaryOperator<S> merge) {
+        return fold(zero, merge);
+    }
+
+    /**
+     * Merge the states of the finished threads into a new one and forget them
+     *
+     * @param zero  the merged state (must not be any of the per-thread states)
+     * @param merge the merge function
+     * @return the merged state of the finished threads
+     */
+    public S drain(S zero, BinaryOperator<S> merge) {
+        S acc = zero;
+        final Iterator<Owned<S>> i = states.iterator();
+        while (i.hasNext()) {
+            final Owned<S> x = i.next();
+            final Thread t = x.owner.get();
+            if (t == null || !t.isAlive()) {
+                i.remove();
+                acc = merge.apply(acc, x.state);
+            }
+        }
+        return acc;
+    }
+
+    // one state and its thread (not retained)
+    private static final class Owned<S> {
+        final WeakReference<Thread> owner;
+        final S state;
+
+        Owned(Thread owner, S state) {
+            this.owner = new WeakReference<>(owner);
+            this.state = state;
+        }
+    }
+}
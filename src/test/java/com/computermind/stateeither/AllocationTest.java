@@ -0,0 +1,155 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import static com.computermind.stateeither.Left.failure;
+import static com.computermind.stateeither.Right.success;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Guards the allocation profile of the hot paths: every operation is warmed up (so the JIT had
+ * the chance to inline and scalar replace) and then the allocated bytes per operation are checked
+ * against the budget stored on {@code allocation-budgets.properties}.
+ */
+@SuppressWarnings({"unchecked"})
+class AllocationTest {
+    private static final int WARMUP = 100_000;
+    private static final int ITERATIONS = 100_000;
+    private static final int ROUNDS = 3;
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static Properties budgets;
+
+    // prevents the JIT from removing the measured operations
+    static volatile Object sink;
+
+    @BeforeAll
+    static void setup() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "thread allocation counters are not available on this JVM");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "thread allocation counters are not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        budgets = new Properties();
+        try (InputStream in = AllocationTest.class.getResourceAsStream("/allocation-budgets.properties")) {
+            assertNotNull(in, "allocation-budgets.properties not found");
+            budgets.load(in);
+        }
+    }
+
+    private static double bytesPerOp(Function<Integer, Object> op) {
+        for (int i = 0; i < WARMUP; i++)
+            sink = op.apply(i);
+        // a round may overlap a (re)compilation, the best round is the steady state
+        final long thread = Thread.currentThread().getId();
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < ITERATIONS; i++)
+                sink = op.apply(i);
+            final long after = threads.getThreadAllocatedBytes(thread);
+            best = Math.min(best, (after - before) / (double) ITERATIONS);
+        }
+        return best;
+    }
+
+    static void assertBudget(String operation, Function<Integer, Object> op) {
+        final String budget = budgets.getProperty(operation);
+        assertNotNull(budget, "no allocation budget for " + operation);
+        final double measured = bytesPerOp(op);
+        assertTrue(measured <= Double.parseDouble(budget),
+                String.format("%s allocates %.1f bytes/op, budget is %s bytes/op", operation, measured, budget));
+    }
+
+    @Test
+    void constructors() {
+        assertBudget("E.success", i -> success(i));
+        assertBudget("E.failure", i -> failure(i));
+        assertBudget("SE.right", i -> SE.right(i, i));
+        assertBudget("SE.left", i -> SE.left(i, i));
+    }
+
+    @Test
+    void then() {
+        final SE<Integer, Integer, Integer> r = SE.right(0, 0);
+        final SE<Integer, Integer, Integer> l = SE.left(0, 0);
+        assertBudget("SE.then.right", i -> r.then((s, x) -> success(i)));
+        assertBudget("SE.then.left", i -> l.then((s, x) -> success(i)));
+        assertBudget("SE.then1.right", i -> r.then(x -> success(i)));
+    }
+
+    @Test
+    void map() {
+        final SE<Integer, Integer, Integer> r = SE.right(0, 0);
+        final SE<Integer, Integer, Integer> l = SE.left(0, 0);
+        assertBudget("SE.map.right", i -> r.map(x -> i));
+        assertBudget("SE.map.left", i -> l.map(x -> i));
+        assertBudget("SE.mapS.right", i -> r.mapS((s, x) -> i));
+    }
+
+    @Test
+    void guard() {
+        final SE<Integer, Integer, Integer> r = SE.right(0, 0);
+        final Integer error = -1;
+        assertBudget("SE.guard.pass", i -> r.guard(x -> true, error));
+        assertBudget("SE.guard.fail", i -> r.guard(x -> false, error));
+    }
+
+    @Test
+    void either() {
+        final SE<Integer, Integer, Integer> r = SE.right(0, 0);
+        final SE<Integer, Integer, Integer> l = SE.left(0, 0);
+        assertBudget("SE.either.right", i -> r.either((s, x) -> i, (s, x) -> i));
+        assertBudget("SE.either.left", i -> l.either((s, x) -> i, (s, x) -> i));
+        assertBudget("SE.either1.right", i -> r.either(x -> i, x -> i));
+        assertBudget("SE.eitherS.right", i -> r.either(s -> i));
+    }
+
+    @Test
+    void with() {
+        final SE<Integer, Integer, Integer> r = SE.right(0, 0);
+        assertBudget("SE.with.right", i -> r.with((s, x) -> sink = i, (s, x) -> sink = i));
+        assertBudget("SE.with1.right", i -> r.with(x -> sink = i, x -> sink = i));
+    }
+
+    @Test
+    void seq() {
+        final SE<Integer, Integer, Integer> r = SE.right(0, 0);
+        final Function<Integer, E<Integer, Integer>> a = s -> success(s);
+        final Function<Integer, E<Integer, Integer>> b = s -> failure(s);
+        assertBudget("SE.seq.right", i -> r.seq(a, a, a));
+        assertBudget("SE.seq.left", i -> r.seq(a, b, a));
+    }
+
+    @Test
+    void foldLong() {
+        final SE<Integer, Integer, Integer> r = SE.right(0, 0);
+        final List<ToLongFunction<Integer>> xs = Collections.nCopies(1000, s -> s + 1);
+        assertBudget("SE.foldLong.1000", i -> r.foldLong(xs, i, Long::sum, a -> true));
+    }
+
+    @Test
+    void foldLongE() {
+        final SE<Integer, Integer, Integer> r = SE.right(0, 0);
+        final List<LongStep<Integer, Integer>> xs = Collections.nCopies(1000, (s, failure) -> s + 1);
+        final List<LongStep<Integer, Integer>> ys = new ArrayList<>(xs);
+        ys.set(500, (s, failure) -> failure.fail(s));
+        assertBudget("SE.foldLongE.1000", i -> r.foldLongE(xs, i, Long::sum, a -> true));
+        assertBudget("SE.foldLongE.left", i -> r.foldLongE(ys, i, Long::sum, a -> true));
+    }
+
+}
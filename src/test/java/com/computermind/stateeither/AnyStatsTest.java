@@ -0,0 +1,42 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnyStatsTest {
+
+    @Test
+    void order() {
+        final AnyStats stats = new AnyStats(3, 0.5, 0);
+        assertArrayEquals(new int[]{0, 1, 2}, stats.order());
+
+        // expected costs: 100 / 1, 10 / 0.5, 10 / 0.25
+        stats.record(0, true, 100);
+        stats.record(1, true, 10);
+        stats.record(1, false, 10);
+        stats.record(2, false, 10);
+        assertEquals(0.25, stats.successRate(2), 1e-9);
+        assertEquals(10, stats.meanCost(2), 1e-9);
+        assertArrayEquals(new int[]{1, 2, 0}, stats.order());
+    }
+
+    @Test
+    void exploration() {
+        final AnyStats stats = new AnyStats(3, 0.5, 1);
+        stats.record(0, true, 1);
+        stats.record(1, true, 2);
+        stats.record(2, true, 3);
+        final boolean[] first = new boolean[3];
+        for (int i = 0; i < 1000; i++)
+            first[stats.order()[0]] = true;
+        assertTrue(first[0] && first[1] && first[2]);
+    }
+
+    @Test
+    void invalid() {
+        assertThrows(IllegalArgumentException.class, () -> new AnyStats(2, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new AnyStats(2, 0.5, 2));
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CancellationTokenTest {
+
+    @Test
+    void cancel() {
+        final CancellationToken parent = new CancellationToken();
+        final CancellationToken child = parent.child();
+        final CancellationToken grandchild = child.child();
+        assertFalse(grandchild.isCancelled());
+
+        child.cancel();
+        assertTrue(grandchild.isCancelled());
+        assertFalse(parent.isCancelled());
+
+        final CancellationToken other = parent.child();
+        parent.cancel();
+        assertTrue(other.isCancelled());
+        assertTrue(parent.child().isCancelled());
+    }
+
+    @Test
+    void fromOtherThread() throws InterruptedException {
+        final CancellationToken token = new CancellationToken();
+        final Thread t = new Thread(token::cancel);
+        t.start();
+        t.join();
+        assertTrue(token.isCancelled());
+    }
+
+    @Test
+    void closedChildrenAreReleased() {
+        final CancellationToken server = new CancellationToken();
+        for (int i = 0; i < 1000; i++)
+            try (CancellationToken request = server.child()) {
+                assertFalse(request.isCancelled());
+            }
+        server.child().child().cancel();
+        assertEquals(1, server.children());
+
+        final CancellationToken running = server.child();
+        final CancellationToken closed = server.child();
+        closed.close();
+        server.cancel();
+        assertTrue(running.isCancelled());
+        assertFalse(closed.isCancelled());
+        assertEquals(0, server.children());
+    }
+
+}
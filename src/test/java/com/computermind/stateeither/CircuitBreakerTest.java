@@ -0,0 +1,164 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static com.computermind.stateeither.CircuitBreaker.Policy.policy;
+import static com.computermind.stateeither.CircuitBreaker.State.*;
+import static com.computermind.stateeither.Left.failure;
+import static com.computermind.stateeither.Right.success;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAndRejects() {
+        final AtomicInteger calls = new AtomicInteger();
+        final List<String> transitions = new ArrayList<>();
+        final CircuitBreaker<String> breaker = new CircuitBreaker<>(policy("open")
+                .window(10)
+                .failureRate(0.5, 4)
+                .onTransition((from, to) -> transitions.add(from + ">" + to)));
+        final BiFunction<Integer, Integer, E<String, Integer>> step = breaker.protect((s, r) -> {
+            calls.incrementAndGet();
+            return r % 2 == 0 ? success(r) : failure("odd");
+        });
+
+        assertEquals(2, (int) step.apply(0, 2).right());
+        assertEquals("odd", step.apply(0, 1).left());
+        assertEquals("odd", step.apply(0, 3).left());
+        assertEquals(CLOSED, breaker.state());
+        assertEquals("odd", step.apply(0, 5).left());
+        assertEquals(OPEN, breaker.state());
+
+        // the step is not called and the left value is the same instance
+        final E<String, Integer> a = step.apply(0, 2);
+        assertEquals("open", a.left());
+        assertSame(a, step.apply(0, 4));
+        assertEquals(4, calls.get());
+        assertEquals(asList("CLOSED>OPEN"), transitions);
+    }
+
+    @Test
+    void probes() {
+        final AtomicLong now = new AtomicLong();
+        final List<CircuitBreaker.State> states = new ArrayList<>();
+        final CircuitBreaker<String> breaker = new CircuitBreaker<>(policy("open")
+                .window(4)
+                .failureRate(1, 2)
+                .openFor(10, TimeUnit.NANOSECONDS)
+                .onTransition((from, to) -> states.add(to)), now::get);
+        final AtomicInteger fail = new AtomicInteger(1);
+        final Function<Integer, E<String, Integer>> step = breaker.protect(s -> fail.get() == 1 ? failure("ko") : success(s));
+
+        step.apply(0);
+        step.apply(0);
+        assertEquals(OPEN, breaker.state());
+        now.set(5);
+        assertEquals("open", step.apply(0).left());
+
+        // failed probe opens again
+        now.set(10);
+        assertEquals("ko", step.apply(0).left());
+        assertEquals(OPEN, breaker.state());
+        assertEquals("open", step.apply(0).left());
+
+        // succeeded probe closes
+        now.set(20);
+        fail.set(0);
+        assertEquals(7, (int) step.apply(7).right());
+        assertEquals(CLOSED, breaker.state());
+        assertEquals(0, breaker.failureRate(), 0);
+        assertEquals(asList(OPEN, HALF_OPEN, OPEN, HALF_OPEN, CLOSED), states);
+    }
+
+    @Test
+    void probesAreLimited() {
+        final AtomicLong now = new AtomicLong();
+        final CircuitBreaker<String> breaker = new CircuitBreaker<>(policy("open")
+                .failureRate(1, 1)
+                .openFor(1, TimeUnit.NANOSECONDS), now::get);
+        final List<E<String, Integer>> inner = new ArrayList<>();
+        final AtomicInteger depth = new AtomicInteger();
+        final Function<Integer, E<String, Integer>>[] step = new Function[1];
+        step[0] = breaker.protect(s -> {
+            if (depth.getAndIncrement() == 1)
+                // a concurrent call while probing
+                inner.add(step[0].apply(s));
+            return depth.get() > 1 ? success(s) : failure("ko");
+        });
+
+        step[0].apply(0);
+        assertEquals(OPEN, breaker.state());
+        now.set(1);
+        assertEquals(3, (int) step[0].apply(3).right());
+        assertEquals("open", inner.get(0).left());
+        assertEquals(CLOSED, breaker.state());
+    }
+
+    @Test
+    void exceptionsAreFailures() {
+        final Function<Integer, E<String, Integer>> step = CircuitBreaker.circuitBreaker(s -> {
+            throw new IllegalStateException("boom");
+        }, CircuitBreaker.Policy.<String>policy("open").failureRate(1, 2));
+
+        assertThrows(IllegalStateException.class, () -> step.apply(0));
+        assertThrows(IllegalStateException.class, () -> step.apply(0));
+        assertEquals("open", step.apply(0).left());
+    }
+
+    @Test
+    void anySkipsOpen() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Function<Integer, E<String, Integer>> primary = CircuitBreaker.circuitBreaker(s -> {
+            calls.incrementAndGet();
+            return failure("down");
+        }, CircuitBreaker.Policy.<String>policy("open").failureRate(1, 1));
+
+        for (int i = 0; i < 5; i++)
+            assertEquals(-i, (int) SE.<Integer, String, Void>right(i, null).any(primary, s -> success(-s)).right());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void lateFailuresDoNotExtendOpen() {
+        final AtomicLong now = new AtomicLong();
+        final CircuitBreaker<String> breaker = new CircuitBreaker<>(policy("open")
+                .failureRate(1, 1)
+                .openFor(10, TimeUnit.NANOSECONDS), now::get);
+        final AtomicInteger depth = new AtomicInteger();
+        final Function<Integer, E<String, Integer>>[] step = new Function[1];
+        step[0] = breaker.protect(s -> {
+            if (depth.getAndIncrement() == 0) {
+                // this call started closed and fails once the breaker is already open
+                step[0].apply(s);
+                now.set(5);
+            }
+            return failure("ko");
+        });
+
+        step[0].apply(0);
+        assertEquals(OPEN, breaker.state());
+        now.set(10);
+        assertEquals("ko", step[0].apply(0).left());
+        assertEquals(3, depth.get());
+    }
+
+    @Test
+    void minimumCallsWithinWindow() {
+        assertThrows(IllegalArgumentException.class, () -> policy("open").window(10).failureRate(0.5, 20));
+        final CircuitBreaker<String> breaker = new CircuitBreaker<>(policy("open").failureRate(0.5, 20).window(10));
+        final Function<Integer, E<String, Integer>> step = breaker.protect(s -> failure("ko"));
+        for (int i = 0; i < 10; i++)
+            step.apply(0);
+        assertEquals(OPEN, breaker.state());
+    }
+}
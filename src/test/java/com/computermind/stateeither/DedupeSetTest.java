@@ -0,0 +1,26 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DedupeSetTest {
+
+    @Test
+    void concurrent() {
+        final DedupeSet<Integer> seen = new DedupeSet<>();
+        final long firsts = IntStream.range(0, 100_000).parallel()
+                .mapToObj(i -> SE.<DedupeSet<Integer>, String, Integer>right(seen, i % 1000)
+                        .guard((s, x) -> s.firstSeen(x), "duplicated"))
+                .filter(SE::isRight)
+                .count();
+        assertEquals(1000, firsts);
+        assertEquals(1000, seen.size());
+        assertTrue(seen.seen(999));
+        assertEquals(1000, seen.snapshot().size());
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Stream;
+
+import static com.computermind.stateeither.Left.failure;
+import static com.computermind.stateeither.Right.success;
+import static java.util.stream.Collectors.joining;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ETest {
+
+    @Test
+    void sequence() {
+        assertEquals("abc", E.sequence(Stream.<E<Integer, String>>of(success("a"), success("b"), success("c")))
+                .map(xs -> xs.collect(joining()))
+                .right());
+        assertEquals(2, E.sequence(Stream.<E<Integer, String>>of(success("a"), failure(2), failure(3)))
+                .left());
+    }
+
+    @Test
+    void traverse() {
+        assertEquals("246", E.<Integer, String, Integer>traverse(Stream.of(1, 2, 3), x -> success(2 * x))
+                .fold(l -> l, xs -> xs.map(Object::toString).collect(joining())));
+        assertEquals("2", E.<Integer, String, Integer>traverse(Stream.of(1, 2, 3), x -> x % 2 == 0 ? failure("" + x) : success(x))
+                .left());
+    }
+
+    @Test
+    void lift() {
+        assertEquals("foo", SE.lift(1, success("foo")).right());
+        assertEquals(1, SE.lift(1, failure("foo")).state());
+        assertEquals("foo", SE.lift(failure("foo")).left());
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileStepsTest {
+    private Path dir;
+
+    @BeforeEach
+    void setup() throws IOException {
+        dir = Files.createTempDirectory("file-steps");
+    }
+
+    @AfterEach
+    void cleanup() throws IOException {
+        try (Stream<Path> xs = Files.list(dir)) {
+            for (Path x : (Iterable<Path>) xs::iterator)
+                Files.delete(x);
+        }
+        Files.delete(dir);
+    }
+
+    private Path file(String name, String contents) throws IOException {
+        return Files.write(dir.resolve(name), contents.getBytes(UTF_8));
+    }
+
+    private static String text(ByteBuffer xs) {
+        return UTF_8.decode(xs.duplicate()).toString();
+    }
+
+    @Test
+    void read() throws IOException {
+        final Path a = file("a.txt", "foo");
+        assertEquals("foo", SE.<Void, IOFailure, String>right(null, a.toString())
+                .then(FileSteps::path)
+                .then(FileSteps::read)
+                .map(FileStepsTest::text)
+                .right());
+        assertEquals("", text(FileSteps.read(file("empty.txt", "")).right()));
+        assertEquals(IOFailure.Kind.NOT_FOUND, FileSteps.read(dir.resolve("none")).left().kind());
+        assertEquals(IOFailure.Kind.NOT_A_FILE, FileSteps.read(dir).left().kind());
+        assertEquals(IOFailure.Kind.INVALID_PATH, FileSteps.path("bad\u0000path").left().kind());
+    }
+
+    @Test
+    void smallFilesAreNotMapped() throws IOException {
+        final ByteBuffer small = FileSteps.read(file("small.txt", "foo")).right();
+        assertFalse(small.isDirect());
+        assertEquals("foo", text(small));
+
+        final char[] xs = new char[FileSteps.MAP_THRESHOLD];
+        Arrays.fill(xs, 'x');
+        final ByteBuffer large = FileSteps.read(file("large.txt", new String(xs))).right();
+        assertTrue(large.isDirect());
+        assertEquals(FileSteps.MAP_THRESHOLD, large.remaining());
+    }
+
+    @Test
+    void lines() throws IOException {
+        final Path a = file("a.txt", "one\r\ntwo\n\nfour\n");
+        final List<String> xs = new ArrayList<>();
+        assertEquals(4L, (long) FileSteps.forEachLine(a, line -> xs.add(text(line))).right());
+        assertEquals(Arrays.asList("one", "two", "", "four"), xs);
+
+        xs.clear();
+        assertEquals(3L, (long) FileSteps.forEachRecord(file("b.csv", "x,y,z"), (byte) ',', r -> xs.add(text(r))).right());
+        assertEquals(Arrays.asList("x", "y", "z"), xs);
+        assertEquals(IOFailure.Kind.NOT_FOUND, FileSteps.forEachLine(dir.resolve("none"), line -> {
+        }).left().kind());
+    }
+
+    @Test
+    void readAll() throws IOException {
+        final List<E<IOFailure, ByteBuffer>> xs = FileSteps.readAll(Arrays.asList(
+                file("a.txt", "a"), dir.resolve("none"), file("b.txt", "bb"), dir));
+        assertEquals("a", text(xs.get(0).right()));
+        assertEquals(IOFailure.Kind.NOT_FOUND, xs.get(1).left().kind());
+        assertEquals("bb", text(xs.get(2).right()));
+        assertEquals(IOFailure.Kind.NOT_A_FILE, xs.get(3).left().kind());
+        assertEquals("abb", E.sequence(xs.stream().filter(E::isRight))
+                .map(bs -> bs.map(FileStepsTest::text).collect(joining()))
+                .right());
+    }
+
+}
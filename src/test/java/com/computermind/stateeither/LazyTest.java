@@ -0,0 +1,117 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.computermind.stateeither.Left.lazyFailure;
+import static com.computermind.stateeither.Right.lazySuccess;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyTest {
+
+    private static <T> Supplier<T> counting(AtomicInteger n, T value) {
+        return () -> {
+            n.incrementAndGet();
+            return value;
+        };
+    }
+
+    @Test
+    void memoized() throws InterruptedException {
+        final AtomicInteger n = new AtomicInteger();
+        final Lazy<String> x = new Lazy<>(counting(n, "foo"));
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                assertEquals("foo", x.get());
+            });
+            t.start();
+            threads.add(t);
+        }
+        start.countDown();
+        for (Thread t : threads)
+            t.join();
+        assertEquals("foo", x.get());
+        assertEquals(1, n.get());
+    }
+
+    @Test
+    void stateless() {
+        final AtomicInteger n = new AtomicInteger();
+        final E<String, String> r = Right.<String, String>lazySuccess(counting(n, "foo")).map(String::length).map(Object::toString);
+        assertTrue(r.isRight());
+        assertEquals(0, n.get());
+        assertEquals("3", r.right());
+        assertEquals("3", r.right());
+        assertEquals(1, n.get());
+
+        final E<String, String> l = lazyFailure(counting(n, "bar"));
+        assertTrue(l.map(String::length).isLeft());
+        assertEquals(1, n.get());
+        assertEquals("bar", l.left());
+        assertEquals(2, n.get());
+    }
+
+    @Test
+    void stateful() {
+        final AtomicInteger n = new AtomicInteger();
+        final SE<Integer, String, String> r = SE.<Integer, String, String>lazyRight(7, counting(n, "foo"))
+                .map(String::toUpperCase);
+        assertEquals(7, (int) r.either(s -> s));
+        assertEquals(0, n.get());
+        assertEquals("FOO", r.right());
+        assertEquals(1, n.get());
+
+        // lazy values survive `then` when the step itself is lazy
+        final SE<Integer, String, Integer> t = SE.<Integer, String, String>right(7, "foo")
+                .then(x -> lazySuccess(counting(n, x.length())));
+        assertEquals(1, n.get());
+        assertEquals(3, t.right());
+        assertEquals(2, n.get());
+
+        final SE<Integer, String, String> l = SE.<Integer, String, String>lazyLeft(7, counting(n, "bar"))
+                .then(x -> lazySuccess(counting(n, x)))
+                .guard(x -> false, "never");
+        assertTrue(l.isLeft());
+        assertEquals(2, n.get());
+        assertEquals("bar", l.left());
+        assertEquals(3, n.get());
+    }
+
+    @Test
+    void stateIsNotDeferred() {
+        final List<String> log = new ArrayList<>();
+        final SE<List<String>, String, Integer> r = SE.<List<String>, String, String>lazyRight(log, () -> "foo")
+                .map(String::length)
+                .mapS((s, x) -> {
+                    s.add("mapS " + x);
+                    return x + 1;
+                });
+        assertEquals(1, log.size());
+        assertEquals("mapS 3", log.get(0));
+        assertEquals(4, (int) r.right());
+    }
+
+    @Test
+    void mappingUnsafeForces() {
+        final SE<Integer, String, Integer> r = SE.<Integer, String, Integer>right(7, 1)
+                .mappingUnsafe(UnsafeException::getMessage, x -> x.then(v -> lazySuccess(() -> {
+                    throw new UnsafeException("lazy failure");
+                })));
+        assertTrue(r.isLeft());
+        assertEquals("lazy failure", r.left());
+        assertEquals(7, (int) r.state());
+    }
+
+}
@@ -3,7 +3,7 @@ package com.computermind.stateeither;
 import org.junit.jupiter.api.Test;
 
 import static com.computermind.stateeither.Left.failure;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class LeftTest {
 
@@ -12,4 +12,28 @@ class LeftTest {
         assertEquals(true, failure(null).either(l -> true, r -> false));
     }
 
-}
\ No newline at end of file
+    @Test
+    void isLeft() {
+        assertTrue(failure(null).isLeft(), "left value must be true on isLeft");
+        assertFalse(failure(null).isRight(), "left value must be false on isRight");
+    }
+
+    @Test
+    void left() {
+        assertEquals("foo", failure("foo").left());
+        assertThrows(IllegalStateException.class, failure(null)::right);
+    }
+
+    @Test
+    void map() {
+        assertEquals("foo", Left.<String, Integer>failure("foo").map(r -> r + 1).left());
+        assertEquals("foo", Left.<String, Integer>failure("foo").flatMap(r -> failure("bar")).left());
+        assertEquals(3, Left.<String, Integer>failure("foo").mapLeft(String::length).left());
+    }
+
+    @Test
+    void guard() {
+        assertEquals("foo", Left.<String, Integer>failure("foo").guard(r -> false, "bar").left());
+    }
+
+}
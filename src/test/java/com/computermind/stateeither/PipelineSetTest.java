@@ -0,0 +1,93 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.computermind.stateeither.Left.failure;
+import static com.computermind.stateeither.Right.success;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineSetTest {
+
+    @Test
+    void sharedPrefix() {
+        final AtomicInteger calls = new AtomicInteger();
+        final BiFunction<List<String>, Integer, E<String, Integer>> parse = (s, r) -> {
+            calls.incrementAndGet();
+            s.add("parse");
+            return success(r + 1);
+        };
+        final BiFunction<List<String>, Integer, E<String, Integer>> normalise = (s, r) -> {
+            calls.incrementAndGet();
+            s.add("normalise");
+            return success(r * 10);
+        };
+        final BiFunction<List<String>, Integer, E<String, Integer>> small = (s, r) -> {
+            calls.incrementAndGet();
+            s.add("small");
+            return r < 100 ? success(r) : failure("big");
+        };
+        final BiFunction<List<String>, Integer, E<String, Integer>> big = (s, r) -> {
+            calls.incrementAndGet();
+            s.add("big");
+            return r >= 100 ? success(r) : failure("small");
+        };
+
+        final PipelineSet<String, List<String>, String, Integer> set = PipelineSet.<String, List<String>, String, Integer>pipelines(ArrayList::new)
+                .chain("small", parse, normalise, small)
+                .chain("big", parse, normalise, big)
+                .chain("parsed", parse);
+        assertEquals(4, set.steps());
+
+        final Map<String, SE<List<String>, String, Stream<Integer>>> rs = set.run(SE.right(new ArrayList<>(), 1));
+        assertEquals(4, calls.get());
+        assertEquals(asList(1, 2, 20, 20), rs.get("small").right().collect(toList()));
+        assertEquals(asList("parse", "normalise", "small"), rs.get("small").state());
+        assertEquals("small", rs.get("big").left());
+        assertEquals(asList("parse", "normalise", "big"), rs.get("big").state());
+        assertEquals(asList(1, 2), rs.get("parsed").right().collect(toList()));
+        assertEquals(asList("parse"), rs.get("parsed").state());
+    }
+
+    @Test
+    void sameAsSeq() {
+        final Function<Integer, E<String, Integer>> a = s -> success(s + 1);
+        final Function<Integer, E<String, Integer>> b = s -> s > 0 ? success(s * 2) : failure("negative");
+        final Function<Integer, E<String, Integer>> c = s -> success(-s);
+        final PipelineSet<Integer, Integer, String, Integer> set = PipelineSet.<Integer, Integer, String, Integer>pipelines(s -> s)
+                .seq(0, a, b)
+                .seq(1, a, c)
+                .seq(2, b, a);
+
+        for (int s : new int[]{-3, 0, 5}) {
+            final SE<Integer, String, Integer> input = SE.right(s, null);
+            final Map<Integer, SE<Integer, String, Stream<Integer>>> rs = set.run(input);
+            assertEquals(Stream.of(input.seq(a, b), input.seq(a, c), input.seq(b, a))
+                            .map(x -> x.isLeft() ? x.left() : x.right().collect(toList()))
+                            .collect(toList()),
+                    Stream.of(0, 1, 2).map(rs::get)
+                            .map(x -> x.isLeft() ? x.left() : x.right().collect(toList()))
+                            .collect(toList()));
+        }
+    }
+
+    @Test
+    void leftInput() {
+        final PipelineSet<String, Void, String, Integer> set = PipelineSet.<String, Void, String, Integer>pipelines(s -> s)
+                .chain("a", (s, r) -> success(r))
+                .chain("b");
+        final Map<String, SE<Void, String, Stream<Integer>>> rs = set.run(SE.left("ko"));
+        assertEquals("ko", rs.get("a").left());
+        assertEquals("ko", rs.get("b").left());
+        assertThrows(IllegalArgumentException.class, () -> set.chain("a"));
+    }
+}
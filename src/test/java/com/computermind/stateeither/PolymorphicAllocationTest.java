@@ -0,0 +1,50 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.computermind.stateeither.AllocationTest.assertBudget;
+import static com.computermind.stateeither.AllocationTest.sink;
+import static com.computermind.stateeither.Right.success;
+
+/**
+ * Same as {@link AllocationTest} but the combinators type profiles are first polluted with all
+ * the SE implementations (strict and lazy), as in an application mixing them.
+ */
+class PolymorphicAllocationTest {
+
+    @BeforeAll
+    static void setup() throws IOException {
+        AllocationTest.setup();
+        final List<SE<Integer, Integer, Integer>> xs = Arrays.asList(
+                SE.right(0, 0), SE.left(0, 0), SE.lazyRight(0, () -> 0), SE.lazyLeft(0, () -> 0));
+        for (int i = 0; i < 100_000; i++) {
+            final SE<Integer, Integer, Integer> x = xs.get(i & 3);
+            final Integer n = i;
+            sink = x.then((s, r) -> success(n));
+            sink = x.then((s, r) -> Right.<Integer, Integer>lazySuccess(() -> n));
+            sink = x.map(r -> n);
+            sink = x.guard(r -> true, n);
+            sink = x.either((s, l) -> n, (s, r) -> n);
+            sink = x.mapL(l -> n);
+        }
+    }
+
+    @Test
+    void strict() {
+        final SE<Integer, Integer, Integer> r = SE.right(0, 0);
+        final SE<Integer, Integer, Integer> l = SE.left(0, 0);
+        final Integer error = -1;
+        assertBudget("polymorphic.SE.then.right", i -> r.then((s, x) -> success(i)));
+        assertBudget("polymorphic.SE.then.left", i -> l.then((s, x) -> success(i)));
+        assertBudget("polymorphic.SE.guard.pass", i -> r.guard(x -> true, error));
+        assertBudget("polymorphic.SE.either.right", i -> r.either((s, x) -> i, (s, x) -> i));
+        assertBudget("polymorphic.SE.either1.right", i -> r.either(x -> i, x -> i));
+        assertBudget("polymorphic.SE.mapL.right", i -> r.mapL(x -> i));
+    }
+
+}
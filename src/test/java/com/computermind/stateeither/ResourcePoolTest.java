@@ -0,0 +1,77 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourcePoolTest {
+
+    // in-memory stand-in of one expensive resource
+    private static final class Connection {
+        final int id;
+        boolean open = true;
+
+        Connection(int id) {
+            this.id = id;
+        }
+    }
+
+    @Test
+    void reuse() {
+        final AtomicInteger created = new AtomicInteger();
+        final ResourcePool<Connection> pool = new ResourcePool<>(
+                () -> new Connection(created.incrementAndGet()), c -> c.open = false, 2, 10, TimeUnit.MILLISECONDS);
+
+        final Connection a = pool.acquire();
+        final Connection b = pool.acquire();
+        assertNotSame(a, b);
+        final UnsafeException e = assertThrows(UnsafeException.class, pool::acquire);
+        assertTrue(e.getCause() instanceof TimeoutException);
+
+        pool.release(a);
+        assertSame(a, pool.acquire());
+        pool.invalidate(a);
+        assertFalse(a.open);
+        assertEquals(3, pool.acquire().id);
+        assertEquals(3, created.get());
+
+        pool.release(b);
+        pool.close();
+        assertFalse(b.open);
+        assertThrows(IllegalStateException.class, pool::acquire);
+    }
+
+    @Test
+    void releasedOnce() {
+        final AtomicInteger created = new AtomicInteger();
+        final ResourcePool<Connection> pool = new ResourcePool<>(
+                () -> new Connection(created.incrementAndGet()), c -> c.open = false, 1, 10, TimeUnit.MILLISECONDS);
+
+        final Connection a = pool.acquire();
+        pool.release(a);
+        assertThrows(IllegalArgumentException.class, () -> pool.release(a));
+        assertThrows(IllegalArgumentException.class, () -> pool.invalidate(new Connection(0)));
+
+        // still one resource at most
+        assertSame(a, pool.acquire());
+        assertThrows(UnsafeException.class, pool::acquire);
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    void factoryFailure() {
+        final ResourcePool<Connection> pool = new ResourcePool<>(() -> {
+            throw new IOException("down");
+        }, c -> {
+        }, 1, 10, TimeUnit.MILLISECONDS);
+        assertEquals("down", assertThrows(UnsafeException.class, pool::acquire).getCause().getMessage());
+        // the permit has been given back
+        assertEquals("down", assertThrows(UnsafeException.class, pool::acquire).getCause().getMessage());
+    }
+
+}
@@ -2,8 +2,9 @@ package com.computermind.stateeither;
 
 import org.junit.jupiter.api.Test;
 
+import static com.computermind.stateeither.Left.failure;
 import static com.computermind.stateeither.Right.success;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class RightTest {
 
@@ -12,4 +13,30 @@ class RightTest {
         assertEquals(true, success(null).either(l -> false, r -> true));
     }
 
-}
\ No newline at end of file
+    @Test
+    void isRight() {
+        assertTrue(success(null).isRight(), "right value must be true on isRight");
+        assertFalse(success(null).isLeft(), "right value must be false on isLeft");
+    }
+
+    @Test
+    void right() {
+        assertEquals("foo", success("foo").right());
+        assertThrows(IllegalStateException.class, success(null)::left);
+    }
+
+    @Test
+    void map() {
+        assertEquals(2, Right.<String, Integer>success(1).map(r -> r + 1).right());
+        assertEquals("bar", Right.<String, Integer>success(1).flatMap(r -> failure("bar")).left());
+        assertEquals(1, Right.<String, Integer>success(1).mapLeft(String::length).right());
+    }
+
+    @Test
+    void guard() {
+        assertEquals(1, Right.<String, Integer>success(1).guard(r -> r > 0, "bar").right());
+        assertEquals("bar", Right.<String, Integer>success(1).guard(r -> r < 0, "bar").left());
+        assertEquals("-1", Right.<String, Integer>success(-1).guard_(r -> r > 0, r -> r.toString()).left());
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.computermind.stateeither;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+
+import static com.computermind.stateeither.Left.failure;
+import static com.computermind.stateeither.Right.success;
+import static com.computermind.stateeither.SEEvents.pipeline;
+import static com.computermind.stateeither.SEEvents.step;
+import static java.util.stream.Collectors.joining;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SEEventsTest {
+
+    private static SE<Void, String, Integer> run() {
+        final Function<Void, E<String, Integer>> one = step("one", s -> success(1));
+        final Function<Void, E<String, Integer>> bad = step("bad", s -> failure("bad"));
+        return SE.<Void, String, Integer>right(null, 0)
+                .mappingUnsafe(UnsafeException::getMessage, pipeline("run", m -> m
+                        .then(step("inc", (s, x) -> success(x + 1)))
+                        .then(x -> SE.<Void, String, Integer>right(null, x).any(bad, one)
+                                .mapL(ls -> ls.collect(joining()))
+                                .either(Left::failure, Right::success))
+                        .then(step("unsafe", (s, x) -> {
+                            throw new UnsafeException("unsafe");
+                        }))));
+    }
+
+    @Test
+    void disabled() {
+        assertEquals("unsafe", run().left());
+    }
+
+    @Test
+    void events() throws IOException {
+        final Path file = Files.createTempFile("se-events", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable("com.computermind.stateeither.Step");
+                recording.enable("com.computermind.stateeither.Pipeline");
+                recording.start();
+                assertEquals("unsafe", run().left());
+                recording.stop();
+                recording.dump(file);
+            }
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertEquals("Step inc Right null, Step bad Left java.lang.String, Step one Right null, "
+                            + "Step unsafe Exception com.computermind.stateeither.UnsafeException, "
+                            + "Pipeline run Exception com.computermind.stateeither.UnsafeException",
+                    events.stream()
+                            .map(e -> e.getEventType().getName().replace("com.computermind.stateeither.", "") + " "
+                                    + e.getString("label") + " " + e.getString("outcome") + " " + e.getString("leftType"))
+                            .collect(joining(", ")));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void lazyLeftNotForced() throws IOException {
+        final Path file = Files.createTempFile("se-events", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable("com.computermind.stateeither.Step");
+                recording.start();
+                // the left value is never required, recording must not compute it
+                assertEquals("done", SE.<Void, String, Integer>right(null, 0)
+                        .then(step("lazy", (s, x) -> Left.<String, Integer>lazyFailure(() -> {
+                            throw new UnsafeException("forced");
+                        })))
+                        .either(s -> "done"));
+                recording.stop();
+                recording.dump(file);
+            }
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertEquals(1, events.size());
+            assertEquals("lazy", events.get(0).getString("leftType"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
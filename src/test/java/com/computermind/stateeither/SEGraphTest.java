@@ -0,0 +1,127 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.computermind.stateeither.Left.failure;
+import static com.computermind.stateeither.Right.success;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SEGraphTest {
+
+    private static List<String> concat(List<String> a, List<String> b) {
+        final List<String> xs = new ArrayList<>(a);
+        xs.addAll(b);
+        return xs;
+    }
+
+    @Test
+    void concurrent() throws InterruptedException {
+        final ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            // `b` and `c` only finish if both run at the same time
+            final CountDownLatch both = new CountDownLatch(2);
+            final AtomicReference<SEGraph.Timing> timing = new AtomicReference<>();
+            final SEGraph<List<String>, String> graph = SEGraph.<List<String>, String>graph(SEGraphTest::concat)
+                    .step("a", (s, in) -> success(2))
+                    .step("b", (s, in) -> {
+                        both.countDown();
+                        try {
+                            return both.await(5, TimeUnit.SECONDS) ? success(in.<Integer>get("a") * 3) : failure("timeout");
+                        } catch (InterruptedException e) {
+                            return failure("interrupted");
+                        }
+                    }, "a")
+                    .stepS("c", (s, in) -> {
+                        both.countDown();
+                        return SE.right(Arrays.asList("c"), in.<Integer>get("a") * 5);
+                    }, "a")
+                    .step("d", (s, in) -> success(in.<Integer>get("b") + in.<Integer>get("c")), "b", "c")
+                    .timings(timing::set);
+
+            final SE<List<String>, String, SEGraph.Results> r = graph.run(Arrays.asList("init"), pool);
+            assertEquals(16, (int) r.right().get("d"));
+            assertEquals(Arrays.asList("init", "c"), r.state());
+            assertEquals("a", r.right().timing().criticalPath().get(0));
+            assertEquals("d", r.right().timing().criticalPath().get(2));
+            assertSame(timing.get(), r.right().timing());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void copies() {
+        final ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            final List<String> init = new ArrayList<>(Arrays.asList("init"));
+            final SEGraph<List<String>, String> graph = SEGraph.<List<String>, String>graph(ArrayList::new, (a, b) -> {
+                final List<String> xs = new ArrayList<>(a);
+                for (String x : b)
+                    if (!xs.contains(x))
+                        xs.add(x);
+                return xs;
+            });
+            for (int i = 0; i < 8; i++) {
+                final String name = "s" + i;
+                graph.step(name, (s, in) -> {
+                    for (int j = 0; j < 1000; j++)
+                        s.add(name + j);
+                    return success(s.size());
+                });
+            }
+
+            final SE<List<String>, String, SEGraph.Results> r = graph.run(init, pool);
+            for (int i = 0; i < 8; i++)
+                assertEquals(1001, (int) r.right().get("s" + i));
+            assertEquals(8001, r.state().size());
+            assertEquals(Arrays.asList("init"), init);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void firstLeft() {
+        final AtomicBoolean ran = new AtomicBoolean();
+        final SE<Void, String, SEGraph.Results> r = SEGraph.<Void, String>graph((a, b) -> a)
+                .step("a", (s, in) -> failure("bad a"))
+                .step("b", (s, in) -> {
+                    ran.set(true);
+                    return success(1);
+                }, "a")
+                .run(null);
+        assertEquals("bad a", r.left());
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void exceptions() {
+        final SE<Void, String, SEGraph.Results> r = SE.<Void, String, String>right(null, "x")
+                .mappingUnsafe(UnsafeException::getMessage, m -> m.then(x -> SEGraph.<Void, String>graph((a, b) -> a)
+                        .step("a", (s, in) -> {
+                            throw new UnsafeException("unsafe");
+                        })
+                        .run(null)
+                        .either(Left::failure, Right::success)));
+        assertEquals("unsafe", r.left());
+    }
+
+    @Test
+    void invalid() {
+        final SEGraph<Void, String> graph = SEGraph.graph((a, b) -> a);
+        graph.step("a", (s, in) -> success(1));
+        assertThrows(IllegalArgumentException.class, () -> graph.step("a", (s, in) -> success(1)));
+        assertThrows(IllegalArgumentException.class, () -> graph.step("b", (s, in) -> success(1), "c"));
+    }
+
+}
@@ -2,14 +2,22 @@ package com.computermind.stateeither;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
 import static com.computermind.stateeither.Left.failure;
 import static com.computermind.stateeither.Right.success;
@@ -17,6 +25,7 @@ import static com.computermind.stateeither.SE.left;
 import static com.computermind.stateeither.SE.right;
 import static com.computermind.stateeither.UnsafeException.unsafe1;
 import static java.util.stream.Collectors.joining;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -160,6 +169,233 @@ class SETest {
 
     }
 
+    @Test
+    void adaptiveAny() {
+        // every alternative advances the clock by its fixed cost
+        final AtomicLong now = new AtomicLong();
+        final AnyStats stats = new AnyStats(3, 0.2, 0, now::get);
+        final int[] tries = new int[3];
+        final Function<Random, E<String, String>> a = rnd -> {
+            tries[0]++;
+            now.addAndGet(10);
+            return failure("A");
+        };
+        final Function<Random, E<String, String>> b = rnd -> {
+            tries[1]++;
+            now.addAndGet(20);
+            return rnd.nextInt(4) == 0 ? success("b") : failure("B");
+        };
+        final Function<Random, E<String, String>> c = rnd -> {
+            tries[2]++;
+            now.addAndGet(100);
+            return success("c");
+        };
+
+        final List<Function<Random, E<String, String>>> xs = Arrays.asList(a, b, c);
+        final Random rnd = new Random(1);
+        for (int i = 0; i < 100; i++)
+            assertTrue(right(rnd, null, String.class).adaptiveAny(stats, xs).isRight());
+
+        // the never succeeding alternative is quickly left the last one
+        assertEquals(10, stats.meanCost(0), 1e-9);
+        assertEquals(20, stats.meanCost(1), 1e-9);
+        assertEquals(100, stats.meanCost(2), 1e-9);
+        assertTrue(tries[0] < 10);
+        assertEquals(0, stats.order()[2]);
+        assertEquals("ABC", right(rnd, null, String.class)
+                .adaptiveAny(new AnyStats(2), a, r -> failure("BC"))
+                .either(l -> l.collect(joining()), r -> r));
+
+        // one throwing alternative is recorded as one failed try (expected costs 30 / success
+        // rate, growing 75, 94, 117, 146, 183 by failure, against 100 / 0.6 once `c` succeeded)
+        final AnyStats throwing = new AnyStats(2, 0.2, 0, now::get);
+        final AtomicInteger thrown = new AtomicInteger();
+        final Function<Random, E<String, String>> d = r -> {
+            thrown.incrementAndGet();
+            now.addAndGet(30);
+            throw new IllegalStateException("d");
+        };
+        for (int i = 0; i < 100; i++)
+            try {
+                right(rnd, null, String.class).adaptiveAny(throwing, d, c);
+            } catch (IllegalStateException e) {
+                assertEquals("d", e.getMessage());
+            }
+        assertEquals(5, thrown.get());
+        assertEquals(30, throwing.meanCost(0), 1e-9);
+        assertArrayEquals(new int[]{1, 0}, throwing.order());
+    }
+
+    @Test
+    void cancellation() {
+        final CancellationToken token = new CancellationToken();
+        final AtomicInteger steps = new AtomicInteger();
+        final AtomicInteger closed = new AtomicInteger();
+        final Function<Void, E<String, Integer>> step = s -> {
+            if (steps.incrementAndGet() == 3)
+                token.cancel();
+            return success(steps.get());
+        };
+
+        assertEquals("cancelled", right((Void) null, 0, String.class)
+                .seq(token, "cancelled", Stream.generate(() -> step).onClose(closed::incrementAndGet))
+                .left());
+        assertEquals(3, steps.get());
+        assertEquals(1, closed.get());
+
+        // already cancelled
+        assertEquals("cancelled", right((Void) null, 0, String.class)
+                .scan(token, "cancelled", Stream.of(step).onClose(closed::incrementAndGet))
+                .left());
+        assertEquals(3, steps.get());
+        assertEquals(2, closed.get());
+        assertEquals("cancelled", right((Void) null, 0, String.class)
+                .chain(token, "cancelled", Stream.of((s, x) -> success(x)))
+                .left());
+
+        // not cancelled (seq starts with the previous right value)
+        steps.set(10);
+        assertEquals("111213", right((Void) null, 0, String.class)
+                .seq(new CancellationToken(), "cancelled", Stream.of(step, step, step))
+                .either(l -> l, xs -> xs.skip(1).map(Object::toString).collect(joining())));
+    }
+
+    @Test
+    void foldWhile() {
+        final Function<Integer, E<String, Integer>> inc = s -> success(s);
+        assertEquals(50, (int) right(5, null, String.class)
+                .foldWhile(Collections.nCopies(10, inc), 0, Integer::sum, a -> true)
+                .right());
+        assertEquals(25, (int) right(5, null, String.class)
+                .foldWhile(Stream.generate(() -> inc), 0, Integer::sum, a -> a < 25)
+                .right());
+        assertEquals("fail", right(5, null, String.class)
+                .foldWhile(Stream.of(inc, s -> failure("fail"), inc), 0, Integer::sum, a -> true)
+                .left());
+        assertEquals(Integer.valueOf(1), right(5, null, String.class)
+                .reduce(Stream.of(), 1, Integer::sum)
+                .right());
+    }
+
+    @Test
+    void foldLong() {
+        final ToLongFunction<Integer> step = s -> s;
+        assertEquals(3_000_000L, (long) right(3, null, String.class)
+                .foldLong(Stream.generate(() -> step).limit(1_000_000), 0, Long::sum, a -> true)
+                .right());
+        assertEquals(1.5, right(3, null, String.class)
+                .foldDouble(Stream.generate(() -> (ToDoubleFunction<Integer>) s -> s / 2.0), 0, Double::sum, a -> a < 1)
+                .right());
+        assertEquals("bad", left(3, "bad").foldLong(Stream.of(step), 0, Long::sum, a -> true).left());
+    }
+
+    @Test
+    void foldLongE() {
+        final AtomicInteger calls = new AtomicInteger();
+        final LongStep<Integer, String> step = (s, failure) ->
+                calls.incrementAndGet() == 1000 ? failure.fail("step 1000") : s;
+        assertEquals("step 1000", right(3, null, String.class)
+                .foldLongE(Stream.generate(() -> step).limit(1_000_000), 0, Long::sum, a -> true)
+                .left());
+        assertEquals(1000, calls.get());
+        assertEquals(2_997L, (long) right(3, null, String.class)
+                .foldLongE(Stream.generate(() -> step).limit(999), 0, Long::sum, a -> true)
+                .right());
+
+        final DoubleStep<Integer, String> half = (s, failure) -> s < 0 ? failure.fail("negative") : s / 2.0;
+        assertEquals(3.0, right(3, null, String.class)
+                .foldDoubleE(Stream.of(half, half), 0, Double::sum, a -> true)
+                .right());
+        assertEquals("negative", right(-1, null, String.class)
+                .foldDoubleE(Stream.of(half, half), 0, Double::sum, a -> true)
+                .left());
+    }
+
+    @Test
+    void using() throws IOException {
+        final Path file = Files.createTempFile("se-using", ".txt");
+        try {
+            Files.write(file, Arrays.asList("a", "b", "c"));
+            final AtomicInteger closed = new AtomicInteger();
+            final Function<Path, Stream<String>> open = unsafe1(Files::lines);
+
+            assertEquals("too short", right((Void) null, file.toString(), String.class)
+                    .mappingUnsafe(UnsafeException::getMessage, m -> m
+                            .map(Paths::get)
+                            .using((s, path) -> open.apply(path).onClose(closed::incrementAndGet),
+                                    Stream::close,
+                                    (lines, n) -> n
+                                            .map(ignore -> lines.count())
+                                            .guard(c -> c > 3, "too short")))
+                    .left());
+            assertEquals(1, closed.get());
+
+            assertEquals("boom", right((Void) null, file.toString(), String.class)
+                    .mappingUnsafe(UnsafeException::getMessage, m -> m
+                            .map(Paths::get)
+                            .bracket((s, path) -> open.apply(path).onClose(closed::incrementAndGet),
+                                    Stream::close,
+                                    (s, lines) -> {
+                                        throw new UnsafeException("boom");
+                                    }))
+                    .left());
+            assertEquals(2, closed.get());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void usingLazy() {
+        final AtomicBoolean open = new AtomicBoolean();
+        assertEquals("foo", SE.<Void, String, String>lazyRight(null, () -> "foo")
+                .using((s, x) -> {
+                    open.set(true);
+                    return open;
+                }, r -> r.set(false), (r, m) -> m.map(x -> r.get() ? x : "USED AFTER RELEASE"))
+                .right());
+        assertTrue(!open.get());
+
+        final ResourcePool<StringBuilder> pool = new ResourcePool<>(StringBuilder::new, sb -> {
+        }, 1, 1, TimeUnit.SECONDS);
+        assertEquals("bar", right((Void) null, "bar", String.class)
+                .bracket(pool, (sb, x) -> Right.<String, String>lazySuccess(() -> pool.idle() == 0 ? x : "USED AFTER RELEASE"))
+                .right());
+        assertEquals(1, pool.idle());
+    }
+
+    @Test
+    void pooled() {
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger destroyed = new AtomicInteger();
+        final ResourcePool<StringBuilder> pool = new ResourcePool<>(() -> {
+            created.incrementAndGet();
+            return new StringBuilder();
+        }, sb -> destroyed.incrementAndGet(), 1, 1, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 10; i++)
+            assertEquals("x" + i, right((Void) null, i, String.class)
+                    .bracket(pool, (sb, n) -> {
+                        sb.setLength(0);
+                        return success(sb.append('x').append(n).toString());
+                    })
+                    .right());
+        assertEquals("left", right((Void) null, 0, String.class)
+                .using(pool, (sb, m) -> m.then(n -> failure("left")))
+                .left());
+        assertEquals(1, created.get());
+        assertEquals(1, pool.idle());
+
+        assertEquals("unsafe", right((Void) null, 0, String.class)
+                .mappingUnsafe(UnsafeException::getMessage, m -> m
+                        .bracket(pool, (sb, n) -> {
+                            throw new UnsafeException("unsafe");
+                        }))
+                .left());
+        assertEquals(1, destroyed.get());
+        assertEquals(0, pool.idle());
+    }
+
     @Test
     void withExceptions() {
         right((Void) null, "bad file", String.class)
@@ -0,0 +1,52 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ShardedAccumulatorTest {
+
+    @Test
+    void concurrent() {
+        final ShardedAccumulator<Integer, long[]> max = new ShardedAccumulator<>(
+                () -> new long[]{Long.MIN_VALUE, 0},
+                (a, x) -> {
+                    a[0] = Math.max(a[0], x);
+                    a[1]++;
+                },
+                (a, b) -> {
+                    a[0] = Math.max(a[0], b[0]);
+                    a[1] += b[1];
+                });
+        IntStream.range(0, 100_000).parallel().forEach(i -> SE.run(max)
+                .with(l -> {
+                }, (s, ignore) -> s.accumulate(i)));
+        final long[] r = max.snapshot();
+        assertEquals(99_999, r[0]);
+        assertEquals(100_000, r[1]);
+    }
+
+    @Test
+    void drain() throws InterruptedException {
+        final ShardedAccumulator<Integer, long[]> sum = new ShardedAccumulator<>(
+                () -> new long[1],
+                (a, x) -> a[0] += x,
+                (a, b) -> a[0] += b[0]);
+        sum.accumulate(1);
+        for (int i = 0; i < 8; i++) {
+            final Thread t = new Thread(() -> sum.accumulate(10));
+            t.start();
+            t.join();
+        }
+        assertEquals(9, sum.shards());
+        sum.drain();
+        assertEquals(1, sum.shards());
+        assertEquals(81, sum.snapshot()[0]);
+        sum.accumulate(1);
+        sum.drain();
+        assertEquals(82, sum.snapshot()[0]);
+    }
+
+}
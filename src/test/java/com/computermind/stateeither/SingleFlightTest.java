@@ -0,0 +1,135 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static com.computermind.stateeither.Right.success;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void coalesced() throws Exception {
+        final int N = 8;
+        final AtomicInteger executions = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final SingleFlight<String, String, Integer> calls = new SingleFlight<>();
+        final ExecutorService pool = Executors.newFixedThreadPool(N);
+        try {
+            final List<Future<E<String, Integer>>> fs = new ArrayList<>();
+            for (int i = 0; i < N; i++)
+                fs.add(pool.submit(() -> calls.execute("sku", () -> {
+                    await(release);
+                    return success(executions.incrementAndGet());
+                })));
+            // wait for the executing caller (the others are waiting for it or just coming)
+            while (calls.inFlight() == 0)
+                Thread.yield();
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<E<String, Integer>> f : fs)
+                assertTrue(f.get().right() <= executions.get());
+            assertTrue(executions.get() < N);
+            assertEquals(0, calls.inFlight());
+
+            // not retained
+            assertEquals(executions.get() + 1, (int) calls.execute("sku", () -> success(executions.incrementAndGet())).right());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void timeout() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final BiFunction<Void, String, E<String, String>> step = SingleFlight.singleFlight(Function.identity(), (s, k) -> {
+            started.countDown();
+            await(release);
+            return success(k);
+        }, 10, TimeUnit.MILLISECONDS, k -> "timeout " + k);
+
+        final CompletableFuture<String> leader = CompletableFuture.supplyAsync(() ->
+                SE.<Void, String, String>right(null, "a").then(step).right());
+        await(started);
+        assertEquals("timeout a", SE.<Void, String, String>right(null, "a").then(step).left());
+        release.countDown();
+        assertEquals("a", leader.get());
+    }
+
+    private static String message(Callable<?> call) {
+        try {
+            call.call();
+            return "no exception";
+        } catch (Exception e) {
+            return e.getClass().getSimpleName() + " " + e.getMessage();
+        }
+    }
+
+    @Test
+    void exceptions() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final SingleFlight<String, String, String> calls = new SingleFlight<>();
+        final FutureTask<String> leader = new FutureTask<>(() -> message(() -> calls.execute("k", () -> {
+            started.countDown();
+            await(release);
+            throw new UnsafeException("down");
+        })));
+        new Thread(leader).start();
+        await(started);
+
+        final FutureTask<String> waiter = new FutureTask<>(() -> message(() -> calls.execute("k", () -> success("not coalesced"))));
+        final Thread t = new Thread(waiter);
+        t.start();
+        // the waiter is blocked on the leader execution (it cannot finish before the release)
+        while (t.getState() != Thread.State.WAITING)
+            Thread.yield();
+        assertEquals(1, calls.inFlight());
+        release.countDown();
+
+        assertEquals("UnsafeException down", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("UnsafeException down", waiter.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void async() throws Exception {
+        final AtomicInteger executions = new AtomicInteger();
+        final CompletableFuture<E<String, Integer>> slow = new CompletableFuture<>();
+        final Function<String, CompletableFuture<E<String, Integer>>> step = SingleFlight.singleFlightAsync(
+                Function.identity(), k -> {
+                    executions.incrementAndGet();
+                    return slow;
+                });
+        final CompletableFuture<E<String, Integer>> a = step.apply("k");
+        final CompletableFuture<E<String, Integer>> b = step.apply("k");
+        assertNotSame(a, b);
+        assertFalse(a.isDone());
+        slow.complete(success(7));
+        assertEquals(7, (int) a.get().right());
+        assertEquals(7, (int) b.get().right());
+        assertEquals(1, executions.get());
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.LongBuffer;
+
+import static com.computermind.stateeither.Right.success;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateArenaTest {
+
+    @Test
+    void views() {
+        try (StateArena arena = StateArena.allocate(64)) {
+            assertTrue(arena.bytes(3).isDirect());
+            assertEquals(8, arena.used());
+            final LongBuffer xs = arena.longs(2);
+            xs.put(0, 7).put(1, 9);
+            assertEquals(4, arena.ints(4).capacity());
+            assertEquals(40, arena.used());
+            assertEquals(16, xs.get(0) + xs.get(1));
+            assertThrows(IllegalStateException.class, () -> arena.doubles(4));
+            arena.reset();
+            assertEquals(4, arena.doubles(4).capacity());
+        }
+    }
+
+    @Test
+    void pooled() {
+        final StateArena.Pool pool = new StateArena.Pool(1024, 1);
+
+        final long r = pool.<String>run()
+                .then((s, ignore) -> {
+                    final LongBuffer xs = s.longs(100);
+                    for (int i = 0; i < 100; i++)
+                        xs.put(i, i);
+                    return success(xs);
+                })
+                .map(xs -> {
+                    long sum = 0;
+                    for (int i = 0; i < xs.capacity(); i++)
+                        sum += xs.get(i);
+                    return sum;
+                })
+                .with(StateArena.release(), StateArena.release())
+                .right();
+        assertEquals(4950, r);
+        assertEquals(1, pool.idle());
+
+        final StateArena a = pool.acquire();
+        assertEquals(0, pool.idle());
+        assertEquals(0, a.used());
+        final StateArena b = pool.acquire();
+        assertNotSame(a, b);
+        a.close();
+        a.close();
+        b.close();
+        assertEquals(1, pool.idle());
+        assertEquals(1, pool.dropped());
+        assertThrows(IllegalStateException.class, () -> a.bytes(1));
+    }
+
+    @Test
+    void staleRelease() {
+        final StateArena.Pool pool = new StateArena.Pool(64, 4);
+        final StateArena first = pool.acquire();
+        first.run().with(StateArena.release(), StateArena.release());
+        final StateArena second = pool.acquire();
+        final LongBuffer mine = second.longs(1);
+        mine.put(0, 7);
+
+        // the former owner releasing again does not give back the memory in use
+        first.close();
+        assertEquals(0, pool.idle());
+        final StateArena third = pool.acquire();
+        assertNotSame(second, third);
+        third.longs(1).put(0, 9);
+        assertEquals(7, mine.get(0));
+    }
+
+}
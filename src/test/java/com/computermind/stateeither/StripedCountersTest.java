@@ -0,0 +1,36 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StripedCountersTest {
+
+    @Test
+    void concurrent() {
+        final StripedCounters<String> counters = new StripedCounters<>();
+        IntStream.range(0, 100_000).parallel().forEach(i -> SE.run(counters)
+                .mapS((s, ignore) -> {
+                    s.increment(i % 2 == 0 ? "even" : "odd");
+                    return i;
+                })
+                .with(l -> {
+                }, (s, n) -> s.add("total", n)));
+        assertEquals(50_000, counters.sum("even"));
+        assertEquals(50_000, counters.sum("odd"));
+        assertEquals(99_999L * 100_000 / 2, counters.sum("total"));
+        assertEquals(0, counters.sum("none"));
+        assertEquals(3, counters.snapshot().size());
+    }
+
+    @Test
+    void merge() {
+        final StripedCounters<String> counters = new StripedCounters<>();
+        counters.add("a", 2);
+        assertEquals(5, counters.merge(Collections.singletonMap("a", 3L)).sum("a"));
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.computermind.stateeither;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ThreadLocalStateTest {
+
+    @Test
+    void merge() {
+        final ThreadLocalState<List<Integer>> state = new ThreadLocalState<>(ArrayList::new);
+        IntStream.range(0, 10_000).parallel().forEach(i -> state.<String>run()
+                .mapS((s, ignore) -> s.add(i)));
+        final List<Integer> all = state.merge(new ArrayList<>(), (a, b) -> {
+            a.addAll(b);
+            return a;
+        });
+        assertEquals(10_000, all.size());
+        assertEquals(10_000L * 9_999 / 2, all.stream().mapToLong(i -> i).sum());
+    }
+
+    @Test
+    void drain() throws InterruptedException {
+        final ThreadLocalState<List<Integer>> state = new ThreadLocalState<>(ArrayList::new);
+        state.get().add(-1);
+        for (int i = 0; i < 4; i++) {
+            final int x = i;
+            final Thread t = new Thread(() -> state.get().add(x));
+            t.start();
+            t.join();
+        }
+        final BinaryOperator<List<Integer>> merge = (a, b) -> {
+            a.addAll(b);
+            return a;
+        };
+        assertEquals(5, state.merge(new ArrayList<>(), merge).size());
+        assertEquals(6, state.drain(new ArrayList<>(), merge).stream().mapToInt(i -> i).sum());
+        assertEquals(Arrays.asList(-1), state.merge(new ArrayList<>(), merge));
+        assertEquals(0, state.drain(new ArrayList<>(), merge).size());
+    }
+
+}
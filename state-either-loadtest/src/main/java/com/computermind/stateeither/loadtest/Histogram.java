@@ -0,0 +1,108 @@
+package com.computermind.stateeither.loadtest;
+
+/**
+ * Log-linear histogram of non negative values (nanoseconds), every value is recorded with a
+ * relative error below 1/32 and the recording does not allocate. It is not thread safe, every
+ * thread records its own one and they are merged at the end.
+ */
+public final class Histogram {
+    // values below LINEAR are exact, above them every power of two is split in HALF buckets
+    private static final int LINEAR = 64;
+    private static final int HALF = LINEAR / 2;
+    private static final int BUCKETS = LINEAR + 57 * HALF;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    static int bucket(long value) {
+        if (value < LINEAR)
+            return (int) value;
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - 5;
+        return LINEAR + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    // the highest value recorded into the bucket
+    static long highest(int bucket) {
+        if (bucket < LINEAR)
+            return bucket;
+        final int shift = (bucket - LINEAR) / HALF + 1;
+        final long top = (bucket - LINEAR) % HALF + HALF;
+        return ((top + 1) << shift) - 1;
+    }
+
+    /**
+     * Record one value
+     *
+     * @param value the value, negative values are recorded as zero
+     */
+    public void record(long value) {
+        final long v = Math.max(0, value);
+        counts[bucket(v)]++;
+        count++;
+        sum += v;
+        max = Math.max(max, v);
+    }
+
+    /**
+     * Add all values recorded into other histogram
+     *
+     * @param other the other histogram
+     * @return this histogram
+     */
+    public Histogram merge(Histogram other) {
+        for (int i = 0; i < BUCKETS; i++)
+            counts[i] += other.counts[i];
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    /**
+     * The value at one percentile
+     *
+     * @param percentile the percentile in [0, 100]
+     * @return the highest value equivalent to the value at the percentile (zero if empty)
+     */
+    public long percentile(double percentile) {
+        if (count == 0)
+            return 0;
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min(max, highest(i));
+        }
+        return max;
+    }
+
+    /**
+     * Number of recorded values
+     *
+     * @return the count
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * The exact maximum recorded value
+     *
+     * @return the maximum (zero if empty)
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * The exact mean of the recorded values
+     *
+     * @return the mean (zero if empty)
+     */
+    public double mean() {
+        return count == 0 ? 0 : sum / (double) count;
+    }
+}
@@ -0,0 +1,277 @@
+package com.computermind.stateeither.loadtest;
+
+import com.computermind.stateeither.E;
+import com.computermind.stateeither.SE;
+import com.computermind.stateeither.UnsafeException;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+import static com.computermind.stateeither.Left.failure;
+import static com.computermind.stateeither.Right.success;
+
+/**
+ * Command line load test of SE pipelines with synthetic I/O like steps.
+ * <p>
+ * Every operation runs one pipeline of {@code steps} steps, every step waits a latency taken
+ * from the latency distribution and results left with the given probability. With a rate the
+ * operations are scheduled (open loop) and the latency is measured from the scheduled start, so
+ * the time waiting behind slow operations is not omitted; without rate every thread runs the
+ * operations back to back (closed loop) and latency and service time are the same.
+ * <pre>
+ * java -cp ... com.computermind.stateeither.loadtest.LoadTest \
+ *     --pipeline=seq --steps=4 --latency=exp:200us --left-rate=0.01 \
+ *     --threads=16 --rate=20000 --warmup=5s --duration=30s
+ * </pre>
+ * Pipelines: {@code then}, {@code seq}, {@code scan}, {@code any} and {@code unsafe} (steps
+ * throwing, mapped by {@code mappingUnsafe}). Latencies: {@code fixed:T}, {@code uniform:T:T}
+ * and {@code exp:T} (mean), with {@code ns}, {@code us}, {@code ms} or {@code s} units.
+ */
+public final class LoadTest {
+    // below this a step spins, parking is not precise enough
+    private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final String pipeline;
+    private final int steps;
+    private final LongSupplier latency;
+    private final double leftRate;
+    private final int threads;
+    private final double rate;
+    private final long warmupNanos;
+    private final long durationNanos;
+
+    LoadTest(Map<String, String> args) {
+        pipeline = args.getOrDefault("pipeline", "seq");
+        steps = Integer.parseInt(args.getOrDefault("steps", "4"));
+        latency = latency(args.getOrDefault("latency", "fixed:100us"));
+        leftRate = Double.parseDouble(args.getOrDefault("left-rate", "0"));
+        threads = Integer.parseInt(args.getOrDefault("threads", Integer.toString(Runtime.getRuntime().availableProcessors())));
+        rate = Double.parseDouble(args.getOrDefault("rate", "0"));
+        warmupNanos = nanos(args.getOrDefault("warmup", "5s"));
+        durationNanos = nanos(args.getOrDefault("duration", "30s"));
+        if (steps < 1 || threads < 1 || rate < 0 || leftRate < 0 || leftRate > 1)
+            throw new IllegalArgumentException("invalid arguments " + args);
+    }
+
+    public static void main(String... args) throws Exception {
+        final Map<String, String> xs = new HashMap<>();
+        for (String a : args) {
+            final int i = a.indexOf('=');
+            if (!a.startsWith("--") || i < 0)
+                throw new IllegalArgumentException("expected --name=value but " + a);
+            xs.put(a.substring(2, i), a.substring(i + 1));
+        }
+        new LoadTest(xs).run();
+    }
+
+    static long nanos(String time) {
+        final String t = time.trim();
+        int i = t.length();
+        while (i > 0 && Character.isLetter(t.charAt(i - 1)))
+            i--;
+        final double v = Double.parseDouble(t.substring(0, i));
+        switch (t.substring(i)) {
+            case "ns":
+                return (long) v;
+            case "us":
+                return (long) (v * 1e3);
+            case "ms":
+                return (long) (v * 1e6);
+            case "s":
+                return (long) (v * 1e9);
+            default:
+                throw new IllegalArgumentException("unknown time unit " + time);
+        }
+    }
+
+    static LongSupplier latency(String distribution) {
+        final String[] xs = distribution.split(":");
+        switch (xs[0]) {
+            case "fixed": {
+                final long t = nanos(xs[1]);
+                return () -> t;
+            }
+            case "uniform": {
+                final long a = nanos(xs[1]);
+                final long b = nanos(xs[2]);
+                return () -> a + (long) (ThreadLocalRandom.current().nextDouble() * (b - a));
+            }
+            case "exp": {
+                final double mean = nanos(xs[1]);
+                return () -> (long) (-mean * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+            }
+            default:
+                throw new IllegalArgumentException("unknown latency distribution " + distribution);
+        }
+    }
+
+    private static void pause(long nanos) {
+        final long until = System.nanoTime() + nanos;
+        if (nanos >= SPIN_NANOS)
+            LockSupport.parkNanos(nanos);
+        while (System.nanoTime() < until) {
+            // spin
+        }
+    }
+
+    private boolean isLeft() {
+        return leftRate > 0 && ThreadLocalRandom.current().nextDouble() < leftRate;
+    }
+
+    // one operation, true if it results right
+    Predicate<Integer> operation() {
+        final Function<Integer, E<String, Integer>> step = s -> {
+            pause(latency.getAsLong());
+            return isLeft() ? failure("left") : success(s + 1);
+        };
+        final List<Function<Integer, E<String, Integer>>> xs = new ArrayList<>();
+        for (int i = 0; i < steps; i++)
+            xs.add(step);
+        switch (pipeline) {
+            case "then": {
+                final BiFunction<Integer, Integer, E<String, Integer>> then = (s, r) -> step.apply(r);
+                return s -> {
+                    SE<Integer, String, Integer> x = SE.right(s, s);
+                    for (int i = 0; i < steps; i++)
+                        x = x.then(then);
+                    return x.isRight();
+                };
+            }
+            case "seq":
+                return s -> SE.<Integer, String, Integer>right(s, s).seq(xs.stream()).isRight();
+            case "scan":
+                return s -> SE.<Integer, String, Integer>right(s, s).scan(xs.stream()).isRight();
+            case "any":
+                return s -> SE.<Integer, String, Integer>right(s, s).any(xs.stream()).isRight();
+            case "unsafe": {
+                final BiFunction<Integer, Integer, E<String, Integer>> unsafe = (s, r) -> {
+                    pause(latency.getAsLong());
+                    if (isLeft())
+                        throw new UnsafeException("left");
+                    return success(r + 1);
+                };
+                return s -> SE.<Integer, String, Integer>right(s, s).<Integer>mappingUnsafe(UnsafeException::getMessage, x -> {
+                    SE<Integer, String, Integer> y = x;
+                    for (int i = 0; i < steps; i++)
+                        y = y.then(unsafe);
+                    return y;
+                }).isRight();
+            }
+            default:
+                throw new IllegalArgumentException("unknown pipeline " + pipeline);
+        }
+    }
+
+    private static final class Result {
+        final Histogram latency = new Histogram();
+        final Histogram service = new Histogram();
+        long lefts;
+        // completion of the last measured operation
+        long last;
+    }
+
+    private Result worker(int thread, Predicate<Integer> operation, long start) {
+        final Result r = new Result();
+        final long from = start + warmupNanos;
+        final long to = from + durationNanos;
+        // open loop: every thread runs one operation each interval, the threads staggered
+        final long interval = rate > 0 ? (long) (threads * 1e9 / rate) : 0;
+        long next = start + interval * thread / threads;
+        for (int i = 0; ; i++) {
+            final long scheduled = interval > 0 ? next : System.nanoTime();
+            if (scheduled >= to)
+                return r;
+            next += interval;
+            long begin = System.nanoTime();
+            if (begin < scheduled) {
+                pause(scheduled - begin);
+                begin = System.nanoTime();
+            }
+            final boolean right = operation.test(i);
+            final long end = System.nanoTime();
+            if (scheduled >= from) {
+                r.latency.record(end - scheduled);
+                r.service.record(end - begin);
+                if (!right)
+                    r.lefts++;
+                r.last = end;
+            }
+        }
+    }
+
+    private static long[] gc() {
+        long count = 0, millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[]{count, millis};
+    }
+
+    void run() throws Exception {
+        final Predicate<Integer> operation = operation();
+        final ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            final long start = System.nanoTime();
+            final List<Future<Result>> fs = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final int thread = i;
+                fs.add(pool.submit(() -> worker(thread, operation, start)));
+            }
+            // the measured window is the scheduled one (plus the time to complete its operations)
+            final long from = start + warmupNanos;
+            final long to = from + durationNanos;
+            TimeUnit.NANOSECONDS.sleep(from - System.nanoTime());
+            final long[] gc0 = gc();
+
+            final Result total = new Result();
+            total.last = to;
+            for (Future<Result> f : fs) {
+                final Result r = f.get();
+                total.latency.merge(r.latency);
+                total.service.merge(r.service);
+                total.lefts += r.lefts;
+                total.last = Math.max(total.last, r.last);
+            }
+            final double seconds = (total.last - from) / 1e9;
+            final long[] gc1 = gc();
+
+            report(total, seconds, gc1[0] - gc0[0], gc1[1] - gc0[1]);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void report(Result r, double seconds, long gcs, long gcMillis) {
+        final long n = r.latency.count();
+        System.out.printf(Locale.ROOT, "pipeline %s, %d steps, %d threads, %s%n", pipeline, steps, threads,
+                rate > 0 ? String.format(Locale.ROOT, "open loop at %.0f ops/s", rate) : "closed loop");
+        System.out.printf(Locale.ROOT, "operations %d in %.2f s, %.0f ops/s, %.2f%% left%n",
+                n, seconds, n / seconds, n == 0 ? 0 : 100.0 * r.lefts / n);
+        System.out.printf(Locale.ROOT, "%-8s %10s %10s %10s %10s %10s%n", "(us)", "mean", "p50", "p99", "p999", "max");
+        row("latency", r.latency);
+        row("service", r.service);
+        System.out.printf(Locale.ROOT, "gc %d collections, %d ms (%.2f%% of the time)%n",
+                gcs, gcMillis, gcMillis / (seconds * 10));
+    }
+
+    private static void row(String name, Histogram h) {
+        System.out.printf(Locale.ROOT, "%-8s %10.1f %10.1f %10.1f %10.1f %10.1f%n", name,
+                h.mean() / 1e3, h.percentile(50) / 1e3, h.percentile(99) / 1e3, h.percentile(99.9) / 1e3, h.max() / 1e3);
+    }
+}
@@ -0,0 +1,52 @@
+package com.computermind.stateeither.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramTest {
+
+    @Test
+    void buckets() {
+        long previous = -1;
+        for (int b = 0; b < 64 + 57 * 32; b++) {
+            final long h = Histogram.highest(b);
+            assertTrue(h > previous);
+            assertEquals(b, Histogram.bucket(previous + 1));
+            assertEquals(b, Histogram.bucket(h));
+            previous = h;
+        }
+        assertEquals(Long.MAX_VALUE, previous);
+    }
+
+    @Test
+    void percentiles() {
+        final Histogram a = new Histogram();
+        final Histogram b = new Histogram();
+        for (long v = 1; v <= 100_000; v++)
+            (v % 2 == 0 ? a : b).record(v * 1000);
+        final Histogram h = a.merge(b);
+
+        assertEquals(100_000, h.count());
+        assertEquals(100_000_000, h.max());
+        assertEquals(50_000_500, h.mean(), 1e-6);
+        for (double p : new double[]{50, 99, 99.9}) {
+            final double expected = p * 1000_000;
+            assertTrue(Math.abs(h.percentile(p) - expected) <= expected / 32, p + ": " + h.percentile(p));
+        }
+        assertEquals(100_000_000, h.percentile(100));
+        assertEquals(0, new Histogram().percentile(99));
+    }
+
+    @Test
+    void relativeError() {
+        final Random rnd = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            final long v = rnd.nextLong() >>> (1 + rnd.nextInt(63));
+            final long h = Histogram.highest(Histogram.bucket(v));
+            assertTrue(h >= v && h - v <= v / 32, Long.toString(v));
+        }
+    }
+}